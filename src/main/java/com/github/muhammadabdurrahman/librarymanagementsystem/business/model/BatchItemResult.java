@@ -0,0 +1,11 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.business.model;
+
+// Outcome of borrowing or returning one ISBN of a batch. Items fail on their own without failing the rest of the batch
+public record BatchItemResult(String isbn, Outcome outcome) {
+
+  public enum Outcome {
+    SUCCEEDED,
+    BOOK_NOT_FOUND,
+    INSUFFICIENT_COPIES
+  }
+}
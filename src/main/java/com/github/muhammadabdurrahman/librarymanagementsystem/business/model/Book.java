@@ -1,11 +1,14 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.business.model;
 
 import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.model.Lockable;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+// Public so that persistence queries can select straight into books
+@AllArgsConstructor
 public final class Book implements Lockable {
 
   private final String isbn;
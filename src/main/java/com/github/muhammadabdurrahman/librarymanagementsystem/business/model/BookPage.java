@@ -0,0 +1,8 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.business.model;
+
+import java.util.List;
+
+// Books of one page in ISBN order. The next page starts after continuationIsbn, which is null on the last page
+public record BookPage(List<Book> books, String continuationIsbn) {
+
+}
@@ -1,9 +1,14 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.business.service;
 
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +22,10 @@ public class LibraryService {
     bookStore.addBook(book);
   }
 
+  public Set<String> importBooks(List<Book> books) {
+    return bookStore.addBooks(books);
+  }
+
   public void removeBook(String isbn) {
     bookStore.removeBook(isbn);
   }
@@ -26,8 +35,20 @@ public class LibraryService {
         .orElseThrow(() -> new BookNotFoundException(isbn));
   }
 
-  public List<Book> findBooksByAuthor(String author) {
-    return bookStore.findBooksByAuthor(author);
+  public BookPage findBooksByAuthor(String author, String afterIsbn, int limit) {
+    return bookStore.findBooksByAuthor(author, afterIsbn, limit);
+  }
+
+  public BookPage findBooks(String afterIsbn, int limit) {
+    return bookStore.findBooks(afterIsbn, limit);
+  }
+
+  public Map<String, Book> findBooksByIsbns(List<String> isbns) {
+    return bookStore.findBooksByIsbns(isbns);
+  }
+
+  public void exportBooks(int fetchSize, Consumer<Book> action) {
+    bookStore.forEachBook(fetchSize, action);
   }
 
   public void borrowBook(String isbn) {
@@ -37,4 +58,12 @@ public class LibraryService {
   public void returnBook(String isbn) {
     bookStore.returnBook(isbn);
   }
+
+  public List<BatchItemResult> borrowBooks(List<String> isbns) {
+    return bookStore.borrowBooks(isbns);
+  }
+
+  public List<BatchItemResult> returnBooks(List<String> isbns) {
+    return bookStore.returnBooks(isbns);
+  }
 }
@@ -1,21 +1,44 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.business.store;
 
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookStore {
 
   void addBook(Book book);
 
+  // Adds the books that are not in the catalog yet and returns the ISBNs of those that were
+  Set<String> addBooks(List<Book> books);
+
   void removeBook(String isbn);
 
   Optional<Book> findBookByIsbn(String isbn);
 
-  List<Book> findBooksByAuthor(String author);
+  // Keyset pages in ISBN order: at most limit books with an ISBN after afterIsbn, or from the start if it is null
+  BookPage findBooksByAuthor(String author, String afterIsbn, int limit);
+
+  BookPage findBooks(String afterIsbn, int limit);
+
+  // Books found among the given ISBNs, keyed by ISBN
+  Map<String, Book> findBooksByIsbns(Collection<String> isbns);
+
+  // Passes every book of the catalog to the action in ISBN order without loading the catalog into memory
+  void forEachBook(int fetchSize, Consumer<Book> action);
 
   void borrowBook(String isbn);
 
   void returnBook(String isbn);
 
+  // Results are in the order of the ISBNs; an ISBN listed twice borrows two copies
+  List<BatchItemResult> borrowBooks(List<String> isbns);
+
+  List<BatchItemResult> returnBooks(List<String> isbns);
+
 }
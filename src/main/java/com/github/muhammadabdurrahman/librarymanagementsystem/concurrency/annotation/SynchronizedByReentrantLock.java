@@ -4,9 +4,24 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface SynchronizedByReentrantLock {
 
+  // How long to wait for the lock, in unit. A negative timeout waits forever
+  long timeout() default -1;
+
+  TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+  // What to do once the timeout has passed without acquiring the lock
+  OnTimeout onTimeout() default OnTimeout.REJECT;
+
+  enum OnTimeout {
+    // Throw a LockTimeoutException, answered with 503 Service Unavailable and a Retry-After header
+    REJECT,
+    // Log a warning and keep waiting
+    WAIT
+  }
 }
@@ -0,0 +1,102 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded Space-Saving sketch of the most frequently seen keys, striped by key hash.
+ * <p>
+ * Each stripe tracks at most its share of capacity keys under its own lock, so threads adding keys of different stripes do not
+ * contend and replacing a key only scans the few counters of one stripe. An untracked key replaces the key with the lowest count
+ * of its stripe and inherits that count as its error, so every key seen more than n / (capacity / stripes) times out of the n
+ * additions to its stripe is guaranteed to be tracked and counts are overestimated by at most their error. Stripes hold disjoint
+ * keys, so their counters are merged as they are.
+ */
+public class HeavyHitters {
+
+  private final Stripe[] stripes;
+
+  HeavyHitters(int capacity, int stripes) {
+    int stripeCapacity = Math.max(1, Math.ceilDiv(capacity, stripes));
+    this.stripes = new Stripe[stripes];
+    Arrays.setAll(this.stripes, i -> new Stripe(stripeCapacity));
+  }
+
+  void add(Object key) {
+    stripes[Math.floorMod(key.hashCode(), stripes.length)].add(key);
+  }
+
+  List<HeavyHitter> top(int limit) {
+    List<Counter> counters = new ArrayList<>();
+    for (Stripe stripe : stripes) {
+      stripe.copyTo(counters);
+    }
+    return counters.stream()
+        .sorted(Comparator.comparingLong((Counter c) -> c.count).reversed())
+        .limit(limit)
+        .map(c -> new HeavyHitter(String.valueOf(c.key), c.count, c.error))
+        .toList();
+  }
+
+  void clear() {
+    for (Stripe stripe : stripes) {
+      stripe.clear();
+    }
+  }
+
+  // A tracked key with its estimated count, which overestimates the true count by at most error
+  public record HeavyHitter(String key, long count, long error) {
+
+  }
+
+  private static final class Stripe {
+
+    private final Map<Object, Counter> counters = new HashMap<>();
+    private final int capacity;
+
+    private Stripe(int capacity) {
+      this.capacity = capacity;
+    }
+
+    synchronized void add(Object key) {
+      Counter counter = counters.get(key);
+      if (counter != null) {
+        counter.count++;
+        return;
+      }
+      if (counters.size() < capacity) {
+        counters.put(key, new Counter(key, 1, 0));
+        return;
+      }
+      Counter minimum = counters.values().stream().min(Comparator.comparingLong(c -> c.count)).orElseThrow();
+      counters.remove(minimum.key);
+      counters.put(key, new Counter(key, minimum.count + 1, minimum.count));
+    }
+
+    // Copies rather than shares the counters, which keep changing under the lock of the stripe
+    synchronized void copyTo(List<Counter> target) {
+      counters.values().forEach(c -> target.add(new Counter(c.key, c.count, c.error)));
+    }
+
+    synchronized void clear() {
+      counters.clear();
+    }
+  }
+
+  private static final class Counter {
+
+    private final Object key;
+    private long count;
+    private final long error;
+
+    private Counter(Object key, long count, long error) {
+      this.key = key;
+      this.count = count;
+      this.error = error;
+    }
+  }
+}
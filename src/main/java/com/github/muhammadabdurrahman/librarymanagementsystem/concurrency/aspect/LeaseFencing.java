@@ -0,0 +1,66 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception.LockLostException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider.LockProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// Tracks the leases held by the @SynchronizedByReentrantLock calls running on the current thread and rolls back a commit made
+// after one of them was lost, as another instance may have taken the lock and written in the meantime. Fencing each lease keeps
+// the lock from being granted again between this check and the commit
+@Component
+public class LeaseFencing implements TransactionExecutionListener {
+
+  // Unset on threads holding no lease, so commits elsewhere cost a single lookup
+  private static final ThreadLocal<List<HeldLease>> HELD_LEASES = new ThreadLocal<>();
+
+  void hold(Object lockKey, LockProvider.Lease lease) {
+    List<HeldLease> held = HELD_LEASES.get();
+    if (held == null) {
+      held = new ArrayList<>(1);
+      HELD_LEASES.set(held);
+    }
+    held.add(new HeldLease(lockKey, lease));
+  }
+
+  // Leases are released in the reverse order they were held, so the last entry for the lease is the one to remove
+  void release(LockProvider.Lease lease) {
+    List<HeldLease> held = HELD_LEASES.get();
+    if (held == null) {
+      return;
+    }
+    for (int i = held.size() - 1; i >= 0; i--) {
+      if (held.get(i).lease() == lease) {
+        held.remove(i);
+        break;
+      }
+    }
+    if (held.isEmpty()) {
+      HELD_LEASES.remove();
+    }
+  }
+
+  void checkValid() {
+    List<HeldLease> leases = HELD_LEASES.get();
+    if (leases == null) {
+      return;
+    }
+    for (HeldLease held : leases) {
+      if (!held.lease().isValid() || !held.lease().fence()) {
+        throw new LockLostException(held.lockKey(), held.lease().fencingToken());
+      }
+    }
+  }
+
+  @Override
+  public void beforeCommit(TransactionExecution transaction) {
+    checkValid();
+  }
+
+  private record HeldLease(Object lockKey, LockProvider.Lease lease) {
+
+  }
+}
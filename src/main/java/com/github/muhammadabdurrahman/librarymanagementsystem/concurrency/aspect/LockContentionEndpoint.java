@@ -0,0 +1,23 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// Most contended lock keys at /actuator/locks; wait and hold times are published as the lock.wait and lock.hold metrics
+@Component
+@Endpoint(id = "locks")
+@RequiredArgsConstructor
+public class LockContentionEndpoint {
+
+  private static final int TOP_CONTENDED_KEYS = 10;
+
+  private final LockMetrics lockMetrics;
+
+  @ReadOperation
+  public List<HeavyHitters.HeavyHitter> contendedKeys() {
+    return lockMetrics.topContendedKeys(TOP_CONTENDED_KEYS);
+  }
+}
@@ -0,0 +1,35 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR event committed when a @SynchronizedByReentrantLock method releases its lock
+@Name("com.github.muhammadabdurrahman.librarymanagementsystem.Lock")
+@Label("Lock By Key")
+@Category({"Library Management System", "Locking"})
+@Description("Lock held by a @SynchronizedByReentrantLock method")
+@StackTrace(false)
+class LockEvent extends Event {
+
+  @Label("Method")
+  String method;
+
+  @Label("Lock Key")
+  String lockKey;
+
+  @Label("Contended")
+  boolean contended;
+
+  @Label("Wait Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long waitTime;
+
+  @Label("Hold Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long holdTime;
+}
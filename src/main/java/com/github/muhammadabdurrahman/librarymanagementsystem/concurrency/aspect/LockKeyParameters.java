@@ -0,0 +1,31 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.LockKey;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+final class LockKeyParameters {
+
+  private LockKeyParameters() {
+  }
+
+  // Index of the single @LockKey parameter of a @SynchronizedByReentrantLock method
+  static int indexOf(Method method) {
+    int index = -1;
+    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+    for (int i = 0; i < parameterAnnotations.length; i++) {
+      for (Annotation annotation : parameterAnnotations[i]) {
+        if (annotation instanceof LockKey) {
+          if (index != -1) {
+            throw new IllegalStateException("More than one @LockKey parameter on " + method);
+          }
+          index = i;
+        }
+      }
+    }
+    if (index == -1) {
+      throw new IllegalStateException("No @LockKey parameter on " + method);
+    }
+    return index;
+  }
+}
@@ -0,0 +1,28 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.SynchronizedByReentrantLock;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+// Fails startup if a @SynchronizedByReentrantLock method does not declare exactly one @LockKey parameter, rather than failing
+// on its first call
+@Component
+public class LockKeyValidator implements BeanPostProcessor {
+
+  @Override
+  public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) throws BeansException {
+    ReflectionUtils.doWithMethods(AopUtils.getTargetClass(bean), method -> {
+      try {
+        LockKeyParameters.indexOf(method);
+      } catch (IllegalStateException e) {
+        throw new BeanInitializationException("Invalid lock key on bean '" + beanName + "'", e);
+      }
+    }, method -> method.isAnnotationPresent(SynchronizedByReentrantLock.class));
+    return bean;
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jdk.jfr.EventType;
+import org.springframework.stereotype.Component;
+
+// Per-method wait and hold time histograms and queue lengths of the locks taken by SynchronizedByReentrantLockAspect, plus a
+// sketch of the most contended lock keys. Every lock release is also emitted as a JFR event when recording is enabled
+@Component
+public class LockMetrics {
+
+  private static final int CONTENDED_KEYS_CAPACITY = 64;
+  private static final int CONTENDED_KEYS_STRIPES = 16;
+  private static final EventType LOCK_EVENT_TYPE = EventType.getEventType(LockEvent.class);
+
+  private final MeterRegistry registry;
+  private final ConcurrentHashMap<Method, MethodMeters> metersByMethod = new ConcurrentHashMap<>();
+  private final HeavyHitters contendedKeys = new HeavyHitters(CONTENDED_KEYS_CAPACITY, CONTENDED_KEYS_STRIPES);
+
+  public LockMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public List<HeavyHitters.HeavyHitter> topContendedKeys(int limit) {
+    return contendedKeys.top(limit);
+  }
+
+  MethodMeters forMethod(Method method) {
+    MethodMeters meters = metersByMethod.get(method);
+    if (meters == null) {
+      meters = metersByMethod.computeIfAbsent(method, this::register);
+    }
+    return meters;
+  }
+
+  void recordContention(Object lockKey) {
+    contendedKeys.add(lockKey);
+  }
+
+  void recordRelease(MethodMeters meters, Object lockKey, boolean contended, long waitNanos, long holdNanos) {
+    meters.holdTimer().record(holdNanos, TimeUnit.NANOSECONDS);
+    if (LOCK_EVENT_TYPE.isEnabled()) {
+      var event = new LockEvent();
+      event.method = meters.name();
+      event.lockKey = String.valueOf(lockKey);
+      event.contended = contended;
+      event.waitTime = waitNanos;
+      event.holdTime = holdNanos;
+      event.commit();
+    }
+  }
+
+  private MethodMeters register(Method method) {
+    String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    var waiting = new AtomicInteger();
+    Gauge.builder("lock.waiting", waiting, AtomicInteger::get)
+        .description("Threads waiting to acquire a lock")
+        .tag("method", name)
+        .register(registry);
+    Timer waitTimer = Timer.builder("lock.wait")
+        .description("Time spent waiting to acquire a lock")
+        .tag("method", name)
+        .publishPercentileHistogram()
+        .register(registry);
+    Counter timeouts = Counter.builder("lock.timeouts")
+        .description("Lock acquisitions that gave up once their timeout passed")
+        .tag("method", name)
+        .register(registry);
+    Timer holdTimer = Timer.builder("lock.hold")
+        .description("Time a lock was held, including the transaction it guards")
+        .tag("method", name)
+        .publishPercentileHistogram()
+        .register(registry);
+    return new MethodMeters(name, waitTimer, holdTimer, timeouts, waiting);
+  }
+
+  record MethodMeters(String name, Timer waitTimer, Timer holdTimer, Counter timeouts, AtomicInteger waiting) {
+
+  }
+}
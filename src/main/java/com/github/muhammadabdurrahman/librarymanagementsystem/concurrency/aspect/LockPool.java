@@ -0,0 +1,18 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import java.util.Comparator;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out the lock guarding a lock key of a bean. The caller locks and unlocks it, then hands it back through release
+interface LockPool {
+
+  ReentrantLock lockFor(Object bean, Object lockKey);
+
+  void release(Object bean, Object lockKey, ReentrantLock lock);
+
+  void clear();
+
+  // Total order on the lock keys of a bean. Taking several locks in this order cannot deadlock with another caller doing the
+  // same, even when keys share a lock
+  Comparator<Object> lockOrder(Object bean);
+}
@@ -0,0 +1,64 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import java.time.Duration;
+import lombok.Builder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Builder
+@ConfigurationProperties(prefix = "lock")
+public record LockProperties(
+    // How locks are assigned to lock keys, see Mode
+    @DefaultValue("per-key")
+    Mode mode,
+
+    // Number of locks in striped mode, rounded up to a power of two
+    @DefaultValue("1024")
+    int stripes,
+
+    // Fair locks grant access in arrival order at a large cost in throughput under contention
+    @DefaultValue("true")
+    boolean fair,
+
+    // Where locks are held across instances, see Provider
+    @DefaultValue("jvm")
+    Provider provider,
+
+    // Settings of the jdbc provider
+    @DefaultValue
+    Jdbc jdbc
+) {
+
+  public enum Mode {
+    // A lock is created for each lock key in use and discarded once released
+    PER_KEY,
+    // A fixed array of locks indexed by the hash of the bean and lock key. Unrelated keys may share a lock
+    STRIPED
+  }
+
+  public enum Provider {
+    // Locks only guard this instance
+    JVM,
+    // After taking the lock of this instance, a lease on a row of the distributed_locks table is taken as well
+    JDBC
+  }
+
+  // A lease expires leaseDuration after it was taken or last renewed, and held leases are renewed every renewInterval. An
+  // instance waiting for a lease polls every retryInterval. The holder stops trusting a lease safetyMargin before it would expire
+  // without a renewal, which covers clocks of instances being out of sync by up to that much.
+  public record Jdbc(
+      @DefaultValue("30s")
+      Duration leaseDuration,
+
+      @DefaultValue("10s")
+      Duration renewInterval,
+
+      @DefaultValue("50ms")
+      Duration retryInterval,
+
+      @DefaultValue("2s")
+      Duration safetyMargin
+  ) {
+
+  }
+}
@@ -0,0 +1,61 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A lock per key, counting the callers between lockFor and release. The lock is dropped from the map only when the last of them
+// releases it, so a caller waiting on a lock, or one that gave up waiting, never leaves the key without a lock while it is held
+class PerKeyLockPool implements LockPool {
+
+  // Map to hold locks for each bean and lock key
+  private final ConcurrentHashMap<Object, ConcurrentHashMap<Object, PooledLock>> locksByBeanAndLockKey = new ConcurrentHashMap<>();
+  private final boolean fair;
+
+  PerKeyLockPool(boolean fair) {
+    this.fair = fair;
+  }
+
+  @Override
+  public ReentrantLock lockFor(Object bean, Object lockKey) {
+    return locksByBeanAndLockKey.computeIfAbsent(bean, k -> new ConcurrentHashMap<>())
+        .compute(lockKey, (k, lock) -> {
+          PooledLock pooled = lock == null ? new PooledLock(fair) : lock;
+          pooled.users++;
+          return pooled;
+        });
+  }
+
+  @Override
+  public void release(Object bean, Object lockKey, ReentrantLock lock) {
+    ConcurrentHashMap<Object, PooledLock> locksForBean = locksByBeanAndLockKey.get(bean);
+    if (locksForBean != null) {
+      locksForBean.computeIfPresent(lockKey, (k, pooled) -> pooled != lock || --pooled.users > 0 ? pooled : null);
+    }
+  }
+
+  @Override
+  public void clear() {
+    locksByBeanAndLockKey.clear();
+  }
+
+  @Override
+  public Comparator<Object> lockOrder(Object bean) {
+    return Comparator.comparing(Object::toString);
+  }
+
+  int size(Object bean) {
+    ConcurrentHashMap<Object, PooledLock> locksForBean = locksByBeanAndLockKey.get(bean);
+    return locksForBean == null ? 0 : locksForBean.size();
+  }
+
+  // The user count is only read and written inside compute calls on its key, which the map runs one at a time
+  private static final class PooledLock extends ReentrantLock {
+
+    private int users;
+
+    private PooledLock(boolean fair) {
+      super(fair);
+    }
+  }
+}
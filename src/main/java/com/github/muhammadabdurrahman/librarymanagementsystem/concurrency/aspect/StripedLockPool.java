@@ -0,0 +1,51 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import java.util.Comparator;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed array of locks indexed by the hash of the bean and lock key: memory is bounded and acquiring a lock allocates nothing.
+// Keys that share a stripe serialize with each other, which is safe as the locks are reentrant
+class StripedLockPool implements LockPool {
+
+  private final ReentrantLock[] locks;
+  private final int mask;
+
+  StripedLockPool(int stripes, boolean fair) {
+    int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.locks = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      locks[i] = new ReentrantLock(fair);
+    }
+    this.mask = size - 1;
+  }
+
+  @Override
+  public ReentrantLock lockFor(Object bean, Object lockKey) {
+    return locks[stripeOf(bean, lockKey)];
+  }
+
+  @Override
+  public void release(Object bean, Object lockKey, ReentrantLock lock) {
+    // Stripes live as long as the pool
+  }
+
+  @Override
+  public void clear() {
+    // Nothing to clear
+  }
+
+  // Keys are ordered by stripe, as unrelated keys sharing a stripe must be locked together
+  @Override
+  public Comparator<Object> lockOrder(Object bean) {
+    return Comparator.<Object>comparingInt(lockKey -> stripeOf(bean, lockKey)).thenComparing(Object::toString);
+  }
+
+  private int stripeOf(Object bean, Object lockKey) {
+    int hash = 31 * System.identityHashCode(bean) + lockKey.hashCode();
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  int size() {
+    return locks.length;
+  }
+}
@@ -1,57 +1,251 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
 
-import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.LockKey;
 import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.SynchronizedByReentrantLock;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception.LockTimeoutException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.model.Lockable;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider.LockProvider;
 import jakarta.annotation.PreDestroy;
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+// Ordered ahead of the transaction advisor so the lock is held until the transaction, and its after-commit callbacks, complete.
+// It must still come after ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1), which the annotation binding relies on
 @Aspect
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
 @Slf4j
 public class SynchronizedByReentrantLockAspect {
 
-  // Map to hold locks for each bean and lock key
-  private final ConcurrentHashMap<Object, ConcurrentHashMap<Object, ReentrantLock>> locksByBeanAndLockKey = new ConcurrentHashMap<>();
+  private final LockPool lockPool;
+  private final LockMetrics lockMetrics;
+  private final LockProvider lockProvider;
+  private final LeaseFencing leaseFencing;
+  private final ConcurrentHashMap<Method, Integer> lockKeyIndexByMethod = new ConcurrentHashMap<>();
+
+  public SynchronizedByReentrantLockAspect(LockProperties properties, LockMetrics lockMetrics, LockProvider lockProvider,
+      LeaseFencing leaseFencing) {
+    this.lockMetrics = lockMetrics;
+    this.lockProvider = lockProvider;
+    this.leaseFencing = leaseFencing;
+    this.lockPool = properties.mode() == LockProperties.Mode.STRIPED
+        ? new StripedLockPool(properties.stripes(), properties.fair())
+        : new PerKeyLockPool(properties.fair());
+  }
 
   @PreDestroy
   public void cleanup() {
-    locksByBeanAndLockKey.clear();
+    lockPool.clear();
   }
 
   @Around("@annotation(synchronizedByReentrantLock)")
   public Object lockByKey(ProceedingJoinPoint joinPoint, SynchronizedByReentrantLock synchronizedByReentrantLock) throws Throwable {
     Object bean = joinPoint.getTarget();
-    Object lockKey = extractLockKey(joinPoint);
-    ConcurrentHashMap<Object, ReentrantLock> locksForBean = locksByBeanAndLockKey.computeIfAbsent(bean, k -> new ConcurrentHashMap<>());
-    ReentrantLock lockForKey = locksForBean.computeIfAbsent(lockKey, k -> new ReentrantLock(true));
-    lockForKey.lock();
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Object lockKey = extractLockKey(joinPoint, method);
+    if (lockKey instanceof Collection<?> lockKeys) {
+      return lockAllByKey(joinPoint, bean, method, lockKeys, synchronizedByReentrantLock);
+    }
+    LockMetrics.MethodMeters meters = lockMetrics.forMethod(method);
+    ReentrantLock lockForKey = lockPool.lockFor(bean, lockKey);
+    boolean contended = lockForKey.isLocked() && !lockForKey.isHeldByCurrentThread();
+    if (contended) {
+      lockMetrics.recordContention(lockKey);
+    }
+    long waitStart = System.nanoTime();
+    meters.waiting().incrementAndGet();
+    LockProvider.Lease lease;
+    try {
+      lease = acquire(bean, lockKey, lockForKey, synchronizedByReentrantLock);
+    } catch (Throwable e) {
+      if (e instanceof LockTimeoutException) {
+        meters.timeouts().increment();
+      }
+      lockPool.release(bean, lockKey, lockForKey);
+      throw e;
+    } finally {
+      meters.waiting().decrementAndGet();
+    }
+    long acquired = System.nanoTime();
+    meters.waitTimer().record(acquired - waitStart, TimeUnit.NANOSECONDS);
+    leaseFencing.hold(lockKey, lease);
     try {
       return joinPoint.proceed();
     } finally {
+      releaseLease(lease, lockKey);
       lockForKey.unlock();
-      locksForBean.remove(lockKey, lockForKey);
+      lockPool.release(bean, lockKey, lockForKey);
+      lockMetrics.recordRelease(meters, lockKey, contended, acquired - waitStart, System.nanoTime() - acquired);
+    }
+  }
+
+  // Takes the in-JVM lock, then a lease from the lock provider, both within the timeout of the annotation
+  private LockProvider.Lease acquire(Object bean, Object lockKey, ReentrantLock lock,
+      SynchronizedByReentrantLock synchronizedByReentrantLock) throws InterruptedException {
+    long timeoutNanos = timeoutNanos(synchronizedByReentrantLock);
+    long start = System.nanoTime();
+    lock(lock, lockKey, timeoutNanos, synchronizedByReentrantLock);
+    try {
+      return lease(bean, lockKey, remainingNanos(timeoutNanos, start), synchronizedByReentrantLock);
+    } catch (Throwable e) {
+      lock.unlock();
+      throw e;
+    }
+  }
+
+  // Locks every key of a collection. In-JVM locks are taken in the order of the lock pool and leases in the order of the keys'
+  // string forms, so two callers locking overlapping collections cannot deadlock, in this instance or across instances. The
+  // timeout of the annotation applies to taking all of them
+  private Object lockAllByKey(ProceedingJoinPoint joinPoint, Object bean, Method method, Collection<?> lockKeyArg,
+      SynchronizedByReentrantLock synchronizedByReentrantLock) throws Throwable {
+    List<Object> lockKeys = lockKeyArg.stream()
+        .map(SynchronizedByReentrantLockAspect::resolveLockKey)
+        .distinct()
+        .toList();
+    LockMetrics.MethodMeters meters = lockMetrics.forMethod(method);
+    Deque<Map.Entry<Object, ReentrantLock>> locked = new ArrayDeque<>(lockKeys.size());
+    Deque<Map.Entry<Object, LockProvider.Lease>> leases = new ArrayDeque<>(lockKeys.size());
+    boolean contended = false;
+    long timeoutNanos = timeoutNanos(synchronizedByReentrantLock);
+    long waitStart = System.nanoTime();
+    meters.waiting().incrementAndGet();
+    try {
+      for (Object lockKey : lockKeys.stream().sorted(lockPool.lockOrder(bean)).toList()) {
+        ReentrantLock lockForKey = lockPool.lockFor(bean, lockKey);
+        if (lockForKey.isLocked() && !lockForKey.isHeldByCurrentThread()) {
+          lockMetrics.recordContention(lockKey);
+          contended = true;
+        }
+        try {
+          lock(lockForKey, lockKey, remainingNanos(timeoutNanos, waitStart), synchronizedByReentrantLock);
+        } catch (Throwable e) {
+          lockPool.release(bean, lockKey, lockForKey);
+          throw e;
+        }
+        locked.push(Map.entry(lockKey, lockForKey));
+      }
+      for (Object lockKey : lockKeys.stream().sorted(Comparator.comparing(Object::toString)).toList()) {
+        LockProvider.Lease lease = lease(bean, lockKey, remainingNanos(timeoutNanos, waitStart), synchronizedByReentrantLock);
+        leases.push(Map.entry(lockKey, lease));
+        leaseFencing.hold(lockKey, lease);
+      }
+    } catch (Throwable e) {
+      if (e instanceof LockTimeoutException) {
+        meters.timeouts().increment();
+      }
+      releaseAll(bean, locked, leases);
+      throw e;
+    } finally {
+      meters.waiting().decrementAndGet();
+    }
+    long acquired = System.nanoTime();
+    meters.waitTimer().record(acquired - waitStart, TimeUnit.NANOSECONDS);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      releaseAll(bean, locked, leases);
+      lockMetrics.recordRelease(meters, lockKeys, contended, acquired - waitStart, System.nanoTime() - acquired);
+    }
+  }
+
+  // Releases leases, then locks, in the reverse order they were taken
+  private void releaseAll(Object bean, Deque<Map.Entry<Object, ReentrantLock>> locked,
+      Deque<Map.Entry<Object, LockProvider.Lease>> leases) {
+    while (!leases.isEmpty()) {
+      Map.Entry<Object, LockProvider.Lease> entry = leases.pop();
+      releaseLease(entry.getValue(), entry.getKey());
+    }
+    while (!locked.isEmpty()) {
+      Map.Entry<Object, ReentrantLock> entry = locked.pop();
+      entry.getValue().unlock();
+      lockPool.release(bean, entry.getKey(), entry.getValue());
+    }
+  }
+
+  // A lease that fails to release expires on its own, so the failure is logged rather than allowed to skip unlocking the in-JVM
+  // lock, which would block the key in this instance for good
+  private void releaseLease(LockProvider.Lease lease, Object lockKey) {
+    leaseFencing.release(lease);
+    try {
+      lease.release();
+    } catch (RuntimeException e) {
+      log.error("Failed to release the lease on {}, it is left to expire", lockKey, e);
+    }
+  }
+
+  private void lock(ReentrantLock lock, Object lockKey, long timeoutNanos,
+      SynchronizedByReentrantLock synchronizedByReentrantLock) throws InterruptedException {
+    if (timeoutNanos < 0) {
+      lock.lock();
+    } else if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+      onTimeout(synchronizedByReentrantLock, lockKey);
+      lock.lock();
+    }
+  }
+
+  private LockProvider.Lease lease(Object bean, Object lockKey, long timeoutNanos,
+      SynchronizedByReentrantLock synchronizedByReentrantLock) throws InterruptedException {
+    LockProvider.Lease lease = lockProvider.tryAcquire(bean, lockKey, timeoutNanos, TimeUnit.NANOSECONDS);
+    if (lease == null) {
+      onTimeout(synchronizedByReentrantLock, lockKey);
+      lease = lockProvider.tryAcquire(bean, lockKey, -1, TimeUnit.NANOSECONDS);
     }
+    return lease;
+  }
+
+  // Timeout of the annotation in nanoseconds, or -1 to wait forever
+  private static long timeoutNanos(SynchronizedByReentrantLock synchronizedByReentrantLock) {
+    long timeout = synchronizedByReentrantLock.timeout();
+    return timeout < 0 ? -1 : synchronizedByReentrantLock.unit().toNanos(timeout);
   }
 
-  // Extracts the lock key from the method arguments
-  private Object extractLockKey(ProceedingJoinPoint joinPoint) {
-    MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-    Object[] args = joinPoint.getArgs();
+  private static long remainingNanos(long timeoutNanos, long start) {
+    return timeoutNanos < 0 ? -1 : Math.max(timeoutNanos - (System.nanoTime() - start), 0);
+  }
+
+  // Rejects the request, or logs and returns so that the caller keeps waiting, depending on the onTimeout policy
+  private void onTimeout(SynchronizedByReentrantLock synchronizedByReentrantLock, Object lockKey) {
+    long timeout = synchronizedByReentrantLock.timeout();
+    if (synchronizedByReentrantLock.onTimeout() == SynchronizedByReentrantLock.OnTimeout.WAIT) {
+      log.warn("Still waiting for the lock on {} after {} {}", lockKey, timeout, synchronizedByReentrantLock.unit());
+      return;
+    }
+    // Ask the client to come back after roughly the time it has already waited, but at least a second
+    long retryAfterSeconds = Math.max(1, synchronizedByReentrantLock.unit().toSeconds(timeout));
+    throw new LockTimeoutException(lockKey, Duration.ofSeconds(retryAfterSeconds));
+  }
+
+  // Extracts the lock key from the method arguments. The @LockKey parameter is resolved once per method. A collection argument
+  // is returned as is, each of its elements being a lock key
+  private Object extractLockKey(ProceedingJoinPoint joinPoint, Method method) {
+    Integer index = lockKeyIndexByMethod.get(method);
+    if (index == null) {
+      index = lockKeyIndexByMethod.computeIfAbsent(method, LockKeyParameters::indexOf);
+    }
+    Object arg = joinPoint.getArgs()[index];
+    if (arg == null) {
+      throw new IllegalArgumentException("No valid lock key found in method arguments");
+    }
+    return resolveLockKey(arg);
+  }
 
-    return Arrays.stream(methodSignature.getMethod().getParameters())
-        .filter(parameter -> parameter.isAnnotationPresent(LockKey.class))
-        .map(parameter -> args[Arrays.asList(methodSignature.getMethod().getParameters()).indexOf(parameter)])
-        .findFirst()
-        .map(arg -> arg instanceof Lockable lockable ? lockable.getLockKey() : arg)
-        .orElseThrow(() -> new IllegalArgumentException("No valid lock key found in method arguments"));
+  private static Object resolveLockKey(Object arg) {
+    return arg instanceof Lockable lockable ? lockable.getLockKey() : arg;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception;
+
+public class LockLostException extends RuntimeException {
+
+  public LockLostException(Object lockKey, long fencingToken) {
+    super("Lost the lock on %s with fencing token %d before committing".formatted(lockKey, fencingToken));
+  }
+}
@@ -0,0 +1,16 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+@Getter
+public class LockTimeoutException extends RuntimeException {
+
+  // How long the client should wait before retrying
+  private final Duration retryAfter;
+
+  public LockTimeoutException(Object lockKey, Duration retryAfter) {
+    super("Timed out waiting for the lock on %s".formatted(lockKey));
+    this.retryAfter = retryAfter;
+  }
+}
@@ -0,0 +1,183 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect.LockProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lock provider holding leases on rows of a table shared by all instances.
+ * <p>
+ * A row per lock name records the owner of the current lease, when it expires and the fencing token of the last grant. A lease is
+ * claimed with a conditional update of a free or expired row, or by inserting the row the first time the lock is used, and
+ * released by clearing the owner. The fencing token is incremented on every claim and rows are never deleted, so tokens keep
+ * increasing. Held leases are renewed in the background; a lease whose renewal finds another owner is marked invalid, and so is
+ * one that has gone unrenewed until the safety margin before its expiry, whether or not another instance has claimed it yet.
+ * <p>
+ * Fencing a lease locks its row within the guarded transaction, provided the row still carries the lease's owner and token.
+ * Another instance can then only claim the lock once the transaction has ended, so its writes commit under the current token or
+ * not at all.
+ * <p>
+ * Other statements run outside any transaction, as the aspect takes the lease before the guarded method starts its transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "jdbc")
+public class JdbcLockProvider implements LockProvider {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+  private final long leaseMillis;
+  private final long safetyMarginMillis;
+  private final long renewIntervalMillis;
+  private final long retryIntervalNanos;
+  private final String instanceId = UUID.randomUUID().toString();
+  private final AtomicLong leaseSequence = new AtomicLong();
+  private final Set<JdbcLease> heldLeases = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("lock-lease-renewer").daemon().factory());
+
+  public JdbcLockProvider(JdbcTemplate jdbcTemplate, Clock clock, LockProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.clock = clock;
+    this.leaseMillis = properties.jdbc().leaseDuration().toMillis();
+    this.safetyMarginMillis = properties.jdbc().safetyMargin().toMillis();
+    this.renewIntervalMillis = properties.jdbc().renewInterval().toMillis();
+    this.retryIntervalNanos = properties.jdbc().retryInterval().toNanos();
+  }
+
+  @PostConstruct
+  public void start() {
+    jdbcTemplate.execute("""
+        CREATE TABLE IF NOT EXISTS distributed_locks (
+          name VARCHAR(255) PRIMARY KEY,
+          owner VARCHAR(64),
+          fencing_token BIGINT NOT NULL,
+          expires_at BIGINT
+        )""");
+    renewer.scheduleWithFixedDelay(this::renewLeases, renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    renewer.shutdownNow();
+    heldLeases.forEach(JdbcLease::release);
+  }
+
+  @Override
+  public Lease tryAcquire(Object bean, Object lockKey, long timeout, TimeUnit unit) throws InterruptedException {
+    String name = AopUtils.getTargetClass(bean).getSimpleName() + ":" + lockKey;
+    String owner = instanceId + ":" + leaseSequence.incrementAndGet();
+    long deadline = System.nanoTime() + unit.toNanos(Math.max(timeout, 0));
+    while (true) {
+      long now = clock.millis();
+      Long fencingToken = claim(name, owner, now);
+      if (fencingToken != null) {
+        var lease = new JdbcLease(name, owner, fencingToken, now + leaseMillis - safetyMarginMillis);
+        heldLeases.add(lease);
+        return lease;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (timeout >= 0 && remaining <= 0) {
+        return null;
+      }
+      TimeUnit.NANOSECONDS.sleep(timeout < 0 ? retryIntervalNanos : Math.min(remaining, retryIntervalNanos));
+    }
+  }
+
+  // Extends every held lease, invalidating those that were taken over after expiring
+  void renewLeases() {
+    for (JdbcLease lease : heldLeases) {
+      try {
+        long now = clock.millis();
+        int renewed = jdbcTemplate.update("UPDATE distributed_locks SET expires_at = ? WHERE name = ? AND owner = ?",
+            now + leaseMillis, lease.name, lease.owner);
+        if (renewed == 0) {
+          log.error("Lost the lease on lock {} with fencing token {}", lease.name, lease.fencingToken);
+          lease.valid = false;
+          heldLeases.remove(lease);
+        } else {
+          lease.validUntil = now + leaseMillis - safetyMarginMillis;
+        }
+      } catch (DataAccessException e) {
+        log.warn("Failed to renew the lease on lock {}", lease.name, e);
+      }
+    }
+  }
+
+  // Returns the fencing token of the claimed lease, or null if the lock is held by someone else
+  private Long claim(String name, String owner, long now) {
+    int claimed = jdbcTemplate.update("""
+            UPDATE distributed_locks SET owner = ?, fencing_token = fencing_token + 1, expires_at = ?
+            WHERE name = ? AND (owner IS NULL OR expires_at <= ?)""",
+        owner, now + leaseMillis, name, now);
+    if (claimed == 1) {
+      return jdbcTemplate.queryForObject("SELECT fencing_token FROM distributed_locks WHERE name = ? AND owner = ?",
+          Long.class, name, owner);
+    }
+    try {
+      jdbcTemplate.update("INSERT INTO distributed_locks (name, owner, fencing_token, expires_at) VALUES (?, ?, 1, ?)",
+          name, owner, now + leaseMillis);
+      return 1L;
+    } catch (DuplicateKeyException e) {
+      return null;
+    }
+  }
+
+  private final class JdbcLease implements Lease {
+
+    private final String name;
+    private final String owner;
+    private final long fencingToken;
+    private volatile boolean valid = true;
+    // Local time after which the lease is no longer trusted, moved on by every successful renewal
+    private volatile long validUntil;
+
+    private JdbcLease(String name, String owner, long fencingToken, long validUntil) {
+      this.name = name;
+      this.owner = owner;
+      this.fencingToken = fencingToken;
+      this.validUntil = validUntil;
+    }
+
+    @Override
+    public long fencingToken() {
+      return fencingToken;
+    }
+
+    @Override
+    public boolean isValid() {
+      return valid && clock.millis() < validUntil;
+    }
+
+    // Runs on the connection of the guarded transaction, which holds the row lock until it commits or rolls back
+    @Override
+    public boolean fence() {
+      return !jdbcTemplate.queryForList("""
+              SELECT fencing_token FROM distributed_locks WHERE name = ? AND owner = ? AND fencing_token = ? FOR UPDATE""",
+          Long.class, name, owner, fencingToken).isEmpty();
+    }
+
+    @Override
+    public void release() {
+      heldLeases.remove(this);
+      valid = false;
+      // Only clears the row if the lease was not taken over in the meantime
+      jdbcTemplate.update("UPDATE distributed_locks SET owner = NULL, expires_at = NULL WHERE name = ? AND owner = ?", name, owner);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Default provider for a single instance: the in-JVM lock already taken by the aspect is all there is to hold
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "jvm", matchIfMissing = true)
+public class JvmLockProvider implements LockProvider {
+
+  private static final Lease JVM_LEASE = new Lease() {
+    @Override
+    public long fencingToken() {
+      return 0;
+    }
+
+    @Override
+    public boolean isValid() {
+      return true;
+    }
+
+    @Override
+    public boolean fence() {
+      return true;
+    }
+
+    @Override
+    public void release() {
+      // The in-JVM lock is released by the aspect
+    }
+  };
+
+  @Override
+  public Lease tryAcquire(Object bean, Object lockKey, long timeout, TimeUnit unit) {
+    return JVM_LEASE;
+  }
+}
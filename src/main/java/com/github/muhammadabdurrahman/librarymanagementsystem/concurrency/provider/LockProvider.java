@@ -0,0 +1,26 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider;
+
+import java.util.concurrent.TimeUnit;
+
+// Holds locks beyond this JVM. SynchronizedByReentrantLockAspect takes a lease from the provider after taking the in-JVM lock
+// of the same key, so an instance never has more than one request waiting on the provider per key
+public interface LockProvider {
+
+  // Waits at most timeout for a lease on the lock key of the bean, or forever if timeout is negative. Returns null on timeout
+  Lease tryAcquire(Object bean, Object lockKey, long timeout, TimeUnit unit) throws InterruptedException;
+
+  interface Lease {
+
+    // Increases every time the lock is granted, so writes can be made conditional on the token of the current grant
+    long fencingToken();
+
+    // False once the lease could not be renewed and another instance may have taken the lock
+    boolean isValid();
+
+    // Called just before the guarded transaction commits. Returns false if the lock has been granted again since this lease was
+    // taken, and otherwise keeps it from being granted again until the transaction ends
+    boolean fence();
+
+    void release();
+  }
+}
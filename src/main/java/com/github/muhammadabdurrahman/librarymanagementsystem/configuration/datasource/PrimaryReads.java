@@ -0,0 +1,35 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads whose results outlive their transaction on the primary, even in read-only transactions.
+ * <p>
+ * Books and ISBNs loaded into the process-wide caches are served long after the transaction ends, and a hot book has its ttl
+ * slid by every read. A replica that is behind would leave a stale book cached, or an added book recorded as missing, well after
+ * the replica caught up, so such reads must see the primary. The pool is picked when a transaction fetches its first connection,
+ * so the read has to be the first statement of its transaction.
+ */
+public final class PrimaryReads {
+
+  private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+  private PrimaryReads() {
+  }
+
+  public static <T> T call(Supplier<T> read) {
+    if (REQUIRED.get() != null) {
+      return read.get();
+    }
+    REQUIRED.set(Boolean.TRUE);
+    try {
+      return read.get();
+    } finally {
+      REQUIRED.remove();
+    }
+  }
+
+  static boolean isRequired() {
+    return REQUIRED.get() != null;
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Measures how far the replica lags behind the primary with a heartbeat row.
+ * <p>
+ * Every check stamps the heartbeat row on the primary with the current time and then reads the stamp that has reached the
+ * replica; the lag is the age of that stamp. A replica in sync shows the stamp just written, while one that is behind shows an
+ * older one, so the lag is known to within the heartbeat interval. The replica is only used while its lag is within the
+ * tolerance. Until the first successful check, and whenever the heartbeat cannot be read from the replica, the lag is unknown
+ * and all reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+  private final JdbcTemplate primary;
+  private final JdbcTemplate replica;
+  private final Clock clock;
+  private final long maximumLagMillis;
+  private volatile double lagMillis = Double.NaN;
+
+  public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Clock clock, ReplicaProperties properties) {
+    this.primary = primary;
+    this.replica = replica;
+    this.clock = clock;
+    this.maximumLagMillis = properties.maximumLag().toMillis();
+  }
+
+  @PostConstruct
+  public void start() {
+    primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    Integer rows = primary.queryForObject("SELECT COUNT(*) FROM replica_heartbeat WHERE id = 1", Integer.class);
+    if (rows == null || rows == 0) {
+      primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", clock.millis());
+    }
+    check();
+  }
+
+  public void check() {
+    long now = clock.millis();
+    try {
+      primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now);
+    } catch (DataAccessException e) {
+      log.warn("Failed to write the replica heartbeat to the primary", e);
+    }
+    try {
+      Long beatAt = replica.query("SELECT beat_at FROM replica_heartbeat WHERE id = 1", rs -> rs.next() ? rs.getLong(1) : null);
+      lagMillis = beatAt == null ? Double.NaN : Math.max(0, now - beatAt);
+    } catch (DataAccessException e) {
+      lagMillis = Double.NaN;
+      log.warn("Failed to read the replica heartbeat, sending all reads to the primary", e);
+    }
+  }
+
+  // NaN while the lag is unknown, which never compares as within the tolerance
+  public double lagMillis() {
+    return lagMillis;
+  }
+
+  public boolean isReplicaUsable() {
+    return lagMillis <= maximumLagMillis;
+  }
+}
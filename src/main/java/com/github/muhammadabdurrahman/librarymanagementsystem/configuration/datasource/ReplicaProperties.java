@@ -0,0 +1,30 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import java.time.Duration;
+import lombok.Builder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Builder
+@ConfigurationProperties(prefix = "datasource.replica")
+public record ReplicaProperties(
+    // Sends read-only transactions to the replica; everything else keeps using spring.datasource
+    @DefaultValue("false")
+    boolean enabled,
+
+    String url,
+
+    String username,
+
+    String password,
+
+    @DefaultValue("10")
+    int maximumPoolSize,
+
+    // Read-only transactions fall back to the primary while the replica lags further behind. Lag is measured by the heartbeat,
+    // so this should be well above datasource.replica.heartbeatInterval
+    @DefaultValue("1s")
+    Duration maximumLag
+) {
+
+}
@@ -0,0 +1,59 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// Replaces the auto-configured DataSource with one that routes read-only transactions to a replica pool
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+  @Bean
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+    var dataSource = new HikariDataSource();
+    dataSource.setPoolName("replica");
+    dataSource.setJdbcUrl(properties.url());
+    dataSource.setUsername(properties.username());
+    dataSource.setPassword(properties.password());
+    dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+      Clock clock, ReplicaProperties properties, MeterRegistry registry) {
+    var monitor = new ReplicaLagMonitor(new JdbcTemplate(primaryDataSource), new JdbcTemplate(replicaDataSource), clock,
+        properties);
+    Gauge.builder("datasource.replica.lag", monitor, ReplicaLagMonitor::lagMillis)
+        .description("Age of the newest heartbeat that reached the replica, NaN if it cannot be read")
+        .baseUnit("milliseconds")
+        .register(registry);
+    return monitor;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+      ReplicaLagMonitor replicaLagMonitor) {
+    return new LazyConnectionDataSourceProxy(
+        new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor::isReplicaUsable));
+  }
+}
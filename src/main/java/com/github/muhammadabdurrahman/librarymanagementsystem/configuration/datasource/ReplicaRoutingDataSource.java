@@ -0,0 +1,37 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Hands out replica connections to read-only transactions while the replica is usable, and primary connections to everything
+// else, including reads that fill the caches (see PrimaryReads). Transaction managers obtain their connection before they mark
+// the transaction read-only, so this has to sit behind a LazyConnectionDataSourceProxy, which only fetches the connection once
+// the first statement runs
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  private final BooleanSupplier replicaUsable;
+
+  ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUsable) {
+    this.replicaUsable = replicaUsable;
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryReads.isRequired()
+        && replicaUsable.getAsBoolean()) {
+      return Target.REPLICA;
+    }
+    return Target.PRIMARY;
+  }
+}
@@ -0,0 +1,92 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+
+/**
+ * Secondary index of author to the ISBNs of their books in ISBN order, resolved by callers through {@link BookCache}.
+ * <p>
+ * An author's entry is complete once loaded, so adding a book appends to it and removing one drops it. To stop a load that
+ * raced with an add or a remove from overwriting the entry with the older list, both bump a generation stripe of the author
+ * and a load is only stored if the generation it started with is still current. Callers still prune ISBNs that no longer
+ * resolve, since the index is updated only after the commit.
+ */
+@Component
+public class AuthorIndex {
+
+  private static final int GENERATION_STRIPES = 64;
+
+  private final ConcurrentHashMap<String, NavigableSet<String>> isbnsByAuthor = new ConcurrentHashMap<>();
+  // Authors in insertion order, used to evict the oldest entry once the index is full
+  private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+  private final int maximumSize;
+
+  public AuthorIndex(BookCacheProperties properties) {
+    this.maximumSize = properties.authorIndexMaximumSize();
+  }
+
+  // Returns the ISBNs of the author's books, or null if the author has not been indexed
+  public NavigableSet<String> get(String author) {
+    return isbnsByAuthor.get(author);
+  }
+
+  // Captured before loading an author's books from the database and handed back to put
+  public long generation(String author) {
+    return generations.get(stripe(author));
+  }
+
+  public void put(String author, Collection<String> isbns, long generation) {
+    boolean[] added = {false};
+    isbnsByAuthor.compute(author, (key, existing) -> {
+      if (generations.get(stripe(author)) != generation) {
+        return existing;
+      }
+      added[0] = existing == null;
+      return new ConcurrentSkipListSet<>(isbns);
+    });
+    if (added[0]) {
+      insertionOrder.add(author);
+      evictIfOverCapacity();
+    }
+  }
+
+  public void addIsbn(String author, String isbn) {
+    generations.incrementAndGet(stripe(author));
+    isbnsByAuthor.computeIfPresent(author, (key, isbns) -> {
+      isbns.add(isbn);
+      return isbns;
+    });
+  }
+
+  public void removeIsbn(String author, String isbn) {
+    generations.incrementAndGet(stripe(author));
+    isbnsByAuthor.computeIfPresent(author, (key, isbns) -> {
+      isbns.remove(isbn);
+      return isbns;
+    });
+  }
+
+  public int size() {
+    return isbnsByAuthor.size();
+  }
+
+  private void evictIfOverCapacity() {
+    while (isbnsByAuthor.size() > maximumSize) {
+      String eldest = insertionOrder.poll();
+      if (eldest == null) {
+        return;
+      }
+      isbnsByAuthor.remove(eldest);
+    }
+  }
+
+  private static int stripe(String author) {
+    return Math.floorMod(author.hashCode(), GENERATION_STRIPES);
+  }
+}
@@ -1,67 +1,468 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
 
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import java.time.Clock;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class BookCache {
 
   private final ConcurrentHashMap<String, BookCacheItem> cache = new ConcurrentHashMap<>();
+  // Keys in insertion order, the head being the next eviction candidate. Guarded by evictionLock
+  private final LinkedHashSet<String> evictionQueue = new LinkedHashSet<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  // Expiry schedule of cached items. Guarded by evictionLock
+  private final TimerWheel timerWheel;
+  private final MissingIsbnCache missingIsbns;
+  private final int maximumSize;
   private final Clock clock;
+  private final BookRefreshLoader refreshLoader;
+  // Only set in refresh-ahead mode
+  private final ThreadPoolExecutor refreshExecutor;
+  // Only set when the off-heap tier is enabled. Writes are guarded by evictionLock
+  private final OffHeapBookCache offHeap;
+  private final long ttlMs;
+  private final long softTtlMs;
+  // Coarse time read by get, advanced on every write and eviction sweep so reads never consult the clock
+  private volatile long currentTimeMs;
+  // Lookup latency per tier, only set once BookCacheMetrics is bound to a registry
+  private volatile Timer heapLookupTimer;
+  private volatile Timer offHeapLookupTimer;
+
+  public BookCache(Clock clock, BookCacheProperties properties, BookRefreshLoader refreshLoader) {
+    this.clock = clock;
+    this.refreshLoader = refreshLoader;
+    this.maximumSize = properties.maximumSize();
+    this.sketch = new FrequencySketch(maximumSize);
+    this.currentTimeMs = clock.millis();
+    this.missingIsbns = new MissingIsbnCache(properties.missingMaximumSize(), properties.missingTtl().toMillis());
+    BookCacheProperties.RefreshAhead refreshAhead = properties.refreshAhead();
+    if (refreshAhead != null && refreshAhead.enabled()) {
+      this.ttlMs = refreshAhead.hardTtl().toMillis();
+      this.softTtlMs = refreshAhead.softTtl().toMillis();
+      this.refreshExecutor = new ThreadPoolExecutor(refreshAhead.threads(), refreshAhead.threads(), 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(refreshAhead.queueCapacity()), Thread.ofPlatform().name("book-cache-refresh-", 0).daemon().factory());
+    } else {
+      this.ttlMs = BookCacheItem.TTL_DURATION.toMillis();
+      this.softTtlMs = Long.MAX_VALUE;
+      this.refreshExecutor = null;
+    }
+    this.timerWheel = new TimerWheel(properties.expiryTick(), Duration.ofMillis(ttlMs), currentTimeMs);
+    BookCacheProperties.OffHeap offHeapProperties = properties.offHeap();
+    this.offHeap = offHeapProperties != null && offHeapProperties.enabled()
+        ? new OffHeapBookCache(offHeapProperties.segments(), (int) offHeapProperties.segmentSize().toBytes(),
+            offHeapProperties.ttl().toMillis(), offHeapProperties.path())
+        : null;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (refreshExecutor != null) {
+      refreshExecutor.shutdownNow();
+    }
+    if (offHeap != null) {
+      offHeap.close();
+    }
+  }
 
   public Optional<Book> get(String isbn) {
-    return Optional.ofNullable(cache.get(isbn))
-        .filter(item -> item.getTtl() > clock.millis())
-        .map(item -> {
-          item.refreshTtl(clock);
-          return item.getBook();
-        });
+    return Optional.ofNullable(getIfPresent(isbn));
+  }
+
+  // Lookup returning null on a miss, allocation-free for on-heap hits. Reads only write shared state when the ttl needs sliding,
+  // the frequency counters of the key are not yet saturated or a book is promoted from the off-heap tier.
+  public Book getIfPresent(String isbn) {
+    Timer timer = heapLookupTimer;
+    long start = timer == null ? 0 : System.nanoTime();
+    sketch.increment(isbn);
+    BookCacheItem item = cache.get(isbn);
+    long now = currentTimeMs;
+    if (item == null || item.isExpired(now)) {
+      record(timer, start);
+      return offHeap == null ? null : promote(isbn, now);
+    }
+    if (refreshExecutor == null) {
+      item.refreshTtlIfNeeded(now);
+    } else if (now - item.getLoadedAt() >= softTtlMs) {
+      refreshAhead(item);
+    }
+    record(timer, start);
+    return item.getBook();
+  }
+
+  void recordLookups(Timer heapLookupTimer, Timer offHeapLookupTimer) {
+    this.heapLookupTimer = heapLookupTimer;
+    this.offHeapLookupTimer = offHeapLookupTimer;
   }
 
   public void put(String isbn, Book book) {
-    cache.put(isbn, new BookCacheItem(book, clock));
+    sketch.increment(isbn);
+    evictionLock.lock();
+    try {
+      long now = advanceTime();
+      putOnHeap(isbn, book, now);
+      if (offHeap != null) {
+        offHeap.put(isbn, book, now);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  // Hits among the given ISBNs, keyed by ISBN. Each lookup behaves like getIfPresent
+  public Map<String, Book> getAllPresent(Collection<String> isbns) {
+    Map<String, Book> books = new HashMap<>();
+    for (String isbn : isbns) {
+      Book book = getIfPresent(isbn);
+      if (book != null) {
+        books.put(isbn, book);
+      }
+    }
+    return books;
+  }
+
+  // Puts several books under a single acquisition of the eviction lock
+  public void putAll(Collection<Book> books) {
+    books.forEach(book -> sketch.increment(book.getIsbn()));
+    evictionLock.lock();
+    try {
+      long now = advanceTime();
+      for (Book book : books) {
+        putOnHeap(book.getIsbn(), book, now);
+        if (offHeap != null) {
+          offHeap.put(book.getIsbn(), book, now);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  // Puts books restored from a snapshot. They expire after the given ttl instead of the ttl of the cache, so a warm start is not
+  // undone within seconds; a read slides their ttl as usual once it is about to pass.
+  public void putRestored(Collection<Book> books, Duration ttl) {
+    books.forEach(book -> sketch.increment(book.getIsbn()));
+    evictionLock.lock();
+    try {
+      long now = advanceTime();
+      for (Book book : books) {
+        putOnHeap(new BookCacheItem(book.getIsbn(), book, now, ttlMs, now + ttl.toMillis()));
+        if (offHeap != null) {
+          offHeap.put(book.getIsbn(), book, now);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void putOnHeap(String isbn, Book book, long now) {
+    putOnHeap(new BookCacheItem(isbn, book, now, ttlMs));
+  }
+
+  private void putOnHeap(BookCacheItem item) {
+    String isbn = item.getIsbn();
+    timerWheel.schedule(item);
+    if (cache.put(isbn, item) == null) {
+      evictionQueue.add(isbn);
+      evictIfOverCapacity(isbn);
+    }
+  }
+
+  // Answers an on-heap miss from the off-heap tier and moves the book back onto the heap. The off-heap tier is checked first
+  // without the eviction lock, so a miss in both tiers never contends with writers. A hit is looked up again under the lock so a
+  // concurrent remove or put cannot be undone by the promotion.
+  private Book promote(String isbn, long now) {
+    Timer timer = offHeapLookupTimer;
+    long start = timer == null ? 0 : System.nanoTime();
+    Book book = offHeap.get(isbn, now);
+    record(timer, start);
+    if (book == null) {
+      return null;
+    }
+    evictionLock.lock();
+    try {
+      book = offHeap.get(isbn, now);
+      if (book != null) {
+        putOnHeap(isbn, book, now);
+      }
+      return book;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static void record(Timer timer, long start) {
+    if (timer != null) {
+      timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Serves the stale item while one background reload per item runs. The reload result is discarded if the item was replaced
+  // or removed in the meantime, e.g. by a write-through from a borrow, so a refresh never overwrites newer state.
+  private void refreshAhead(BookCacheItem stale) {
+    if (!stale.getRefreshing().compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      refreshExecutor.execute(() -> {
+        try {
+          refreshLoader.load(stale.getIsbn()).ifPresentOrElse(book -> replace(stale, book), () -> {
+            evictionLock.lock();
+            try {
+              expire(stale);
+            } finally {
+              evictionLock.unlock();
+            }
+          });
+        } catch (RuntimeException e) {
+          log.warn("Failed to refresh cached book with ISBN {}", stale.getIsbn(), e);
+        } finally {
+          stale.getRefreshing().set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // Refresh queue is full; a later read of the stale item will try again
+      stale.getRefreshing().set(false);
+    }
+  }
+
+  private void replace(BookCacheItem stale, Book book) {
+    evictionLock.lock();
+    try {
+      var item = new BookCacheItem(stale.getIsbn(), book, advanceTime(), ttlMs);
+      if (cache.replace(stale.getIsbn(), stale, item)) {
+        timerWheel.schedule(item);
+        if (offHeap != null) {
+          offHeap.put(stale.getIsbn(), book, item.getLoadedAt());
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
   }
 
   public void remove(String isbn) {
-    cache.remove(isbn);
+    evictionLock.lock();
+    try {
+      if (cache.remove(isbn) != null) {
+        evictionQueue.remove(isbn);
+      }
+      removeOffHeap(isbn);
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  // Replaces the cached book only if it is still the expected instance, so a background validation never overwrites a newer
+  // write. A book that is no longer on the heap is dropped from the off-heap tier as well, as that copy cannot be checked.
+  public void replace(String isbn, Book expected, Book book) {
+    evictionLock.lock();
+    try {
+      BookCacheItem item = cache.get(isbn);
+      if (item == null) {
+        removeOffHeap(isbn);
+      } else if (item.getBook() == expected) {
+        long now = advanceTime();
+        putOnHeap(isbn, book, now);
+        if (offHeap != null) {
+          offHeap.put(isbn, book, now);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  // Removes the cached book only if it is still the expected instance, see replace
+  public void remove(String isbn, Book expected) {
+    evictionLock.lock();
+    try {
+      BookCacheItem item = cache.get(isbn);
+      if (item == null || item.getBook() == expected) {
+        remove(isbn);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  // Books that have not expired, most frequently requested first
+  public List<Book> hottest(int limit) {
+    long now = currentTimeMs;
+    return cache.values().stream()
+        .filter(item -> !item.isExpired(now))
+        .sorted(Comparator.comparingInt((BookCacheItem item) -> sketch.frequency(item.getIsbn())).reversed())
+        .limit(limit)
+        .map(BookCacheItem::getBook)
+        .toList();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public int offHeapSize() {
+    return offHeap == null ? 0 : offHeap.size();
   }
 
+  public long offHeapUsedBytes() {
+    return offHeap == null ? 0 : offHeap.usedBytes();
+  }
+
+  public long offHeapCapacityBytes() {
+    return offHeap == null ? 0 : offHeap.capacityBytes();
+  }
+
+  // True if a recent lookup found that no book with this ISBN exists
+  public boolean isKnownMissing(String isbn) {
+    return missingIsbns.contains(isbn, currentTimeMs);
+  }
+
+  public void putMissing(String isbn) {
+    missingIsbns.add(isbn, advanceTime());
+  }
+
+  public void removeMissing(String isbn) {
+    missingIsbns.remove(isbn);
+  }
+
+  public int missingSize() {
+    return missingIsbns.size();
+  }
+
+  // Removes the items whose ttl has passed. Only the timer wheel buckets that have elapsed since the previous call are visited
   public void evictStaleBooks() {
-    long currentTimeMs = clock.millis();
-    cache.forEach((key, value) -> {
-      if (isExpired(value.ttl, currentTimeMs)) {
-        cache.computeIfPresent(key, (k, v) -> isExpired(v.ttl, currentTimeMs) ? null : v);
+    long now = advanceTime();
+    missingIsbns.evictExpired(now);
+    evictionLock.lock();
+    try {
+      timerWheel.advance(now, item -> cache.get(item.getIsbn()) == item, this::expire);
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void removeOffHeap(String isbn) {
+    if (offHeap != null) {
+      offHeap.remove(isbn);
+    }
+  }
+
+  private long advanceTime() {
+    long now = clock.millis();
+    currentTimeMs = now;
+    return now;
+  }
+
+  private void expire(BookCacheItem item) {
+    if (cache.remove(item.getIsbn(), item)) {
+      evictionQueue.remove(item.getIsbn());
+    }
+  }
+
+  // TinyLFU admission: the newly added candidate only displaces the eviction candidate if it has been requested more often,
+  // so a scan of one-hit ISBNs cannot flush the hot working set. A victim that survives is given a second chance at the tail.
+  private void evictIfOverCapacity(String candidate) {
+    while (cache.size() > maximumSize) {
+      String victim = nextVictim(candidate);
+      if (victim == null || sketch.frequency(candidate) <= sketch.frequency(victim)) {
+        evict(candidate);
+        if (victim != null) {
+          evictionQueue.remove(victim);
+          evictionQueue.add(victim);
+        }
+      } else {
+        evict(victim);
+      }
+    }
+  }
+
+  private String nextVictim(String candidate) {
+    Iterator<String> iterator = evictionQueue.iterator();
+    while (iterator.hasNext()) {
+      String key = iterator.next();
+      if (!key.equals(candidate)) {
+        return key;
       }
-    });
+    }
+    return null;
   }
 
-  private boolean isExpired(long ttl, long currentTime) {
-    return ttl <= currentTime;
+  private void evict(String isbn) {
+    cache.remove(isbn);
+    evictionQueue.remove(isbn);
   }
 
   @Getter
   public static class BookCacheItem {
 
     public static final Duration TTL_DURATION = Duration.ofSeconds(2);
+    // Reads only slide the ttl once less than this remains, so a hot book is written at most once per half ttl
+    public static final Duration TTL_REFRESH_THRESHOLD = TTL_DURATION.dividedBy(2);
+
+    private static final long TTL_DURATION_MS = TTL_DURATION.toMillis();
+    private static final long TTL_REFRESH_THRESHOLD_MS = TTL_REFRESH_THRESHOLD.toMillis();
 
+    private final String isbn;
     private final Book book;
-    private Long ttl;
+    private final long loadedAt;
+    private final long ttlMs;
+    // Set while a refresh-ahead reload of this item is queued or running
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long ttl;
 
-    public BookCacheItem(Book book, Clock clock) {
+    public BookCacheItem(String isbn, Book book, long currentTimeMs) {
+      this(isbn, book, currentTimeMs, TTL_DURATION_MS);
+    }
+
+    public BookCacheItem(String isbn, Book book, long currentTimeMs, long ttlMs) {
+      this(isbn, book, currentTimeMs, ttlMs, currentTimeMs + ttlMs);
+    }
+
+    // An item that first expires at ttl, after which reads slide it by ttlMs
+    public BookCacheItem(String isbn, Book book, long currentTimeMs, long ttlMs, long ttl) {
+      this.isbn = isbn;
       this.book = book;
-      refreshTtl(clock);
+      this.loadedAt = currentTimeMs;
+      this.ttlMs = ttlMs;
+      this.ttl = ttl;
+    }
+
+    public boolean isExpired(long currentTimeMs) {
+      return ttl <= currentTimeMs;
     }
 
-    public void refreshTtl(Clock clock) {
-      this.ttl = Instant.now(clock).toEpochMilli() + TTL_DURATION.toMillis();
+    public void refreshTtl(long currentTimeMs) {
+      this.ttl = currentTimeMs + ttlMs;
+    }
+
+    public void refreshTtlIfNeeded(long currentTimeMs) {
+      if (ttl - currentTimeMs < TTL_REFRESH_THRESHOLD_MS) {
+        refreshTtl(currentTimeMs);
+      }
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Reports the footprint and lookup latency of each cache tier side by side, tagged by tier
+@Component
+@RequiredArgsConstructor
+public class BookCacheMetrics implements MeterBinder {
+
+  private final BookCache cache;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("book.cache.entries", cache, BookCache::size)
+        .description("Books held in the cache")
+        .tag("tier", "heap")
+        .register(registry);
+    Gauge.builder("book.cache.entries", cache, BookCache::offHeapSize)
+        .description("Books held in the cache")
+        .tag("tier", "offheap")
+        .register(registry);
+    Gauge.builder("book.cache.offheap.bytes", cache, BookCache::offHeapUsedBytes)
+        .description("Bytes of off-heap segments holding serialized books, including superseded records")
+        .tag("state", "used")
+        .baseUnit("bytes")
+        .register(registry);
+    Gauge.builder("book.cache.offheap.bytes", cache, BookCache::offHeapCapacityBytes)
+        .description("Bytes of off-heap segments holding serialized books, including superseded records")
+        .tag("state", "capacity")
+        .baseUnit("bytes")
+        .register(registry);
+    cache.recordLookups(lookupTimer(registry, "heap"), lookupTimer(registry, "offheap"));
+  }
+
+  private static Timer lookupTimer(MeterRegistry registry, String tier) {
+    return Timer.builder("book.cache.lookup")
+        .description("Time to look up a book in one cache tier, hit or miss")
+        .tag("tier", tier)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+}
@@ -0,0 +1,110 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Builder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@Builder
+@ConfigurationProperties(prefix = "cache")
+public record BookCacheProperties(
+    // Maximum number of books held in the cache before the admission policy starts rejecting or evicting entries
+    @DefaultValue("10000")
+    int maximumSize,
+
+    // Resolution of the timer wheel that expires stale books; should match cache.eviction.fixedRate
+    @DefaultValue("100ms")
+    Duration expiryTick,
+
+    // Maximum number of unknown ISBNs remembered by the negative cache
+    @DefaultValue("10000")
+    int missingMaximumSize,
+
+    // How long an unknown ISBN is answered from the negative cache before the database is asked again
+    @DefaultValue("1s")
+    Duration missingTtl,
+
+    // Maximum number of authors whose ISBNs are held in the author index
+    @DefaultValue("10000")
+    int authorIndexMaximumSize,
+
+    // Optional stale-while-revalidate mode, see RefreshAhead
+    @DefaultValue
+    RefreshAhead refreshAhead,
+
+    // Optional second tier holding serialized books outside the heap, see OffHeap
+    @DefaultValue
+    OffHeap offHeap,
+
+    // Optional snapshot of the hottest books written on shutdown and restored on startup, see Snapshot
+    @DefaultValue
+    Snapshot snapshot
+) {
+
+  // Once a book is older than softTtl it is still served, but a reload is queued on a bounded executor. Books are only
+  // dropped once they are older than hardTtl. Reads do not slide the ttl in this mode.
+  public record RefreshAhead(
+      @DefaultValue("false")
+      boolean enabled,
+
+      @DefaultValue("1s")
+      Duration softTtl,
+
+      @DefaultValue("10s")
+      Duration hardTtl,
+
+      @DefaultValue("2")
+      int threads,
+
+      @DefaultValue("1000")
+      int queueCapacity
+  ) {
+
+  }
+
+  // Books written to the on-heap tier are also serialized into a ring of `segments` buffers of
+  // segmentSize each. On-heap misses are answered from it for up to ttl after the book was written. The segments are
+  // memory-mapped from path when one is given and allocated as direct buffers otherwise.
+  public record OffHeap(
+      @DefaultValue("false")
+      boolean enabled,
+
+      @DefaultValue("16")
+      int segments,
+
+      @DefaultValue("4MB")
+      DataSize segmentSize,
+
+      @DefaultValue("1m")
+      Duration ttl,
+
+      Path path
+  ) {
+
+  }
+
+  // Up to maximumEntries of the most frequently read books are written to path on shutdown and every cache.snapshot.fixedRate
+  // milliseconds. They are restored before the application reports ready and validated against the database in the background,
+  // validationBatchSize books per query. Restored books are served for up to ttl rather than the ttl of the cache, which would
+  // expire most of them within seconds of the restart.
+  public record Snapshot(
+      @DefaultValue("false")
+      boolean enabled,
+
+      @DefaultValue("book-cache.snapshot")
+      Path path,
+
+      @DefaultValue("10000")
+      int maximumEntries,
+
+      @DefaultValue("100")
+      int validationBatchSize,
+
+      @DefaultValue("1m")
+      Duration ttl
+  ) {
+
+  }
+}
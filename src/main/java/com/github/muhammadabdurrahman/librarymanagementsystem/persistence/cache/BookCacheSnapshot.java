@@ -0,0 +1,172 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binary snapshot of the most frequently read cached books, so that a restarted instance does not start with a cold cache.
+ * <p>
+ * The snapshot is written to a temporary file that then replaces the previous snapshot, so a crash mid-write never leaves a
+ * truncated snapshot behind. On startup the books are put back into the cache with the snapshot ttl before the application
+ * reports ready, then compared against the database by a background pass. Books that changed are replaced and books that no longer exist are
+ * dropped, unless a newer write reached the cache first.
+ */
+@Slf4j
+@Component
+public class BookCacheSnapshot {
+
+  private static final int MAGIC = 0x424B4353;
+  private static final int VERSION = 1;
+
+  private final BookCache cache;
+  private final BookRefreshLoader loader;
+  private final BookCacheProperties.Snapshot properties;
+
+  public BookCacheSnapshot(BookCache cache, BookRefreshLoader loader, BookCacheProperties properties) {
+    this.cache = cache;
+    this.loader = loader;
+    this.properties = properties.snapshot();
+  }
+
+  @EventListener(ApplicationStartedEvent.class)
+  public void restoreOnStartup() {
+    if (!properties.enabled()) {
+      return;
+    }
+    List<Book> restored = restore();
+    if (!restored.isEmpty()) {
+      Thread.ofPlatform().name("book-cache-snapshot-validation").daemon().start(() -> validate(restored));
+    }
+  }
+
+  @PreDestroy
+  public void save() {
+    if (!properties.enabled()) {
+      return;
+    }
+    Path path = properties.path();
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    List<Book> books = cache.hottest(properties.maximumEntries());
+    try {
+      try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(books.size());
+        for (Book book : books) {
+          write(out, book);
+        }
+      }
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.debug("Wrote {} cached books to snapshot {}", books.size(), path);
+    } catch (IOException e) {
+      log.warn("Failed to write book cache snapshot {}", path, e);
+    }
+  }
+
+  // Puts the books of the snapshot into the cache and returns them. The snapshot is read in full first, so a corrupt snapshot
+  // leaves the cache untouched.
+  List<Book> restore() {
+    Path path = properties.path();
+    if (!Files.exists(path)) {
+      return List.of();
+    }
+    List<Book> books;
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        log.warn("Ignoring book cache snapshot {} with unknown format", path);
+        return List.of();
+      }
+      int count = in.readInt();
+      books = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        books.add(read(in));
+      }
+    } catch (IOException e) {
+      log.warn("Failed to read book cache snapshot {}", path, e);
+      return List.of();
+    }
+    cache.putRestored(books, properties.ttl());
+    log.info("Restored {} cached books from snapshot {}", books.size(), path);
+    return books;
+  }
+
+  void validate(List<Book> restored) {
+    int batchSize = properties.validationBatchSize();
+    try {
+      for (int from = 0; from < restored.size(); from += batchSize) {
+        List<Book> batch = restored.subList(from, Math.min(from + batchSize, restored.size()));
+        Map<String, Book> current = loader.loadAll(batch.stream().map(Book::getIsbn).toList()).stream()
+            .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+        for (Book book : batch) {
+          Book currentBook = current.get(book.getIsbn());
+          if (currentBook == null) {
+            cache.remove(book.getIsbn(), book);
+          } else if (!currentBook.equals(book)) {
+            cache.replace(book.getIsbn(), book, currentBook);
+          }
+        }
+      }
+      log.info("Validated {} books restored from the cache snapshot", restored.size());
+    } catch (RuntimeException e) {
+      // Unvalidated books still expire with their ttl
+      log.warn("Failed to validate books restored from the cache snapshot", e);
+    }
+  }
+
+  private static void write(DataOutputStream out, Book book) throws IOException {
+    writeString(out, book.getIsbn());
+    writeString(out, book.getTitle());
+    writeString(out, book.getAuthor());
+    writeInteger(out, book.getPublicationYear());
+    writeInteger(out, book.getAvailableCopies());
+  }
+
+  private static Book read(DataInputStream in) throws IOException {
+    return Book.builder()
+        .isbn(readString(in))
+        .title(readString(in))
+        .author(readString(in))
+        .publicationYear(readInteger(in))
+        .availableCopies(readInteger(in))
+        .build();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeInt(value);
+    }
+  }
+
+  private static Integer readInteger(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readInt() : null;
+  }
+}
@@ -0,0 +1,18 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import java.util.List;
+import java.util.Optional;
+
+// Loads the current state of books from the source of truth when BookCache refreshes a stale entry ahead of expiry or a
+// restored snapshot is validated
+@FunctionalInterface
+public interface BookRefreshLoader {
+
+  Optional<Book> load(String isbn);
+
+  // Books that no longer exist are left out of the result
+  default List<Book> loadAll(List<String> isbns) {
+    return isbns.stream().map(this::load).flatMap(Optional::stream).toList();
+  }
+}
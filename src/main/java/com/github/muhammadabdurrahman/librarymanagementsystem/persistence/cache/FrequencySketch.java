@@ -0,0 +1,90 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+/**
+ * A Count-Min sketch of 4-bit counters used to estimate how often a key has been accessed (TinyLFU).
+ * <p>
+ * Each key maps to four counters spread over the table and the estimate is the minimum of them. Once the number of recorded
+ * increments reaches ten times the cache capacity all counters are halved, so the sketch favours recent popularity.
+ * <p>
+ * Updates are deliberately not synchronised: a lost increment under a race only makes an estimate slightly more conservative,
+ * which is an acceptable trade for keeping the cache read path free of locks.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  FrequencySketch(int maximumSize) {
+    int maximum = Math.min(Math.max(maximumSize, 1), 1 << 30);
+    this.table = new long[Math.max(ceilingPowerOfTwo(maximum), 8)];
+    this.tableMask = table.length - 1;
+    this.sampleSize = (int) Math.min(10L * maximum, Integer.MAX_VALUE);
+  }
+
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size >= sampleSize) {
+      reset();
+    }
+  }
+
+  // Increments the j-th 4-bit counter of table[i] unless it is already saturated
+  private boolean incrementAt(int i, int j) {
+    int offset = j << 2;
+    long mask = 0xfL << offset;
+    if ((table[i] & mask) != mask) {
+      table[i] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  // Halves every counter so that historic popularity decays
+  private void reset() {
+    int oddCounters = 0;
+    for (int i = 0; i < table.length; i++) {
+      oddCounters += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size - (oddCounters >>> 2)) >>> 1;
+  }
+
+  private int indexOf(int hash, int i) {
+    long index = (hash + SEEDS[i]) * SEEDS[i];
+    index += index >>> 32;
+    return ((int) index) & tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    return 1 << -Integer.numberOfLeadingZeros(x - 1);
+  }
+}
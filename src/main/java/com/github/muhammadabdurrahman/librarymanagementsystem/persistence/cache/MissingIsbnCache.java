@@ -0,0 +1,57 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded negative cache of ISBNs that were looked up but do not exist.
+ * <p>
+ * Every entry lives for the same ttl, so insertion order is also expiry order and a sweep only pops the expired head of the
+ * queue. Once full, new misses are simply not recorded rather than displacing existing ones.
+ */
+class MissingIsbnCache {
+
+  private final ConcurrentHashMap<String, Long> expiryByIsbn = new ConcurrentHashMap<>();
+  // Guarded by this
+  private final ArrayDeque<Entry> expiryQueue = new ArrayDeque<>();
+  private final int maximumSize;
+  private final long ttlMs;
+
+  MissingIsbnCache(int maximumSize, long ttlMs) {
+    this.maximumSize = maximumSize;
+    this.ttlMs = ttlMs;
+  }
+
+  boolean contains(String isbn, long currentTimeMs) {
+    Long expiry = expiryByIsbn.get(isbn);
+    return expiry != null && expiry > currentTimeMs;
+  }
+
+  synchronized void add(String isbn, long currentTimeMs) {
+    if (expiryByIsbn.size() >= maximumSize && !expiryByIsbn.containsKey(isbn)) {
+      return;
+    }
+    long expiry = currentTimeMs + ttlMs;
+    expiryByIsbn.put(isbn, expiry);
+    expiryQueue.add(new Entry(isbn, expiry));
+  }
+
+  void remove(String isbn) {
+    expiryByIsbn.remove(isbn);
+  }
+
+  synchronized void evictExpired(long currentTimeMs) {
+    while (!expiryQueue.isEmpty() && expiryQueue.peek().expiry() <= currentTimeMs) {
+      Entry entry = expiryQueue.poll();
+      expiryByIsbn.remove(entry.isbn(), entry.expiry());
+    }
+  }
+
+  int size() {
+    return expiryByIsbn.size();
+  }
+
+  private record Entry(String isbn, long expiry) {
+
+  }
+}
@@ -0,0 +1,231 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Second cache tier holding serialized books outside the Java heap.
+ * <p>
+ * Records are appended to a ring of fixed-size segments, backed either by direct buffers or by memory-mapped regions of a
+ * file. When the active segment is full the oldest segment is recycled and every book it held is dropped, so eviction is FIFO
+ * per segment and costs nothing per entry. An on-heap index maps each ISBN to the segment and offset of its latest record;
+ * superseded records are left behind until their segment is recycled.
+ * <p>
+ * Writes are not thread-safe; callers must hold the cache's eviction lock. Reads only take the read lock of the segment they
+ * read from, which keeps it from being recycled mid-read.
+ */
+class OffHeapBookCache implements Closeable {
+
+  // Record layout: int length, long writtenAt, isbn, title, author, int publicationYear, int availableCopies. Strings are a
+  // short byte length (-1 for null) followed by their UTF-8 bytes
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+  private static final int NULL_LENGTH = -1;
+  private static final int NULL_INTEGER = Integer.MIN_VALUE;
+
+  private final ConcurrentHashMap<String, Long> index = new ConcurrentHashMap<>();
+  private final Segment[] segments;
+  private final int segmentSize;
+  private final long ttlMs;
+  private final FileChannel channel;
+  private int activeSegment;
+
+  OffHeapBookCache(int segmentCount, int segmentSize, long ttlMs, Path path) {
+    this.segments = new Segment[segmentCount];
+    this.segmentSize = segmentSize;
+    this.ttlMs = ttlMs;
+    try {
+      this.channel = path == null ? null : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      for (int i = 0; i < segmentCount; i++) {
+        segments[i] = new Segment(channel == null
+            ? ByteBuffer.allocateDirect(segmentSize)
+            : channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map off-heap book cache at " + path, e);
+    }
+  }
+
+  Book get(String isbn, long currentTimeMs) {
+    Long location = index.get(isbn);
+    if (location == null) {
+      return null;
+    }
+    Segment segment = segments[segmentOf(location)];
+    segment.lock.readLock().lock();
+    try {
+      // The segment may have been recycled between the index lookup and taking the lock
+      if (!location.equals(index.get(isbn))) {
+        return null;
+      }
+      return decode(segment.buffer, offsetOf(location), currentTimeMs);
+    } finally {
+      segment.lock.readLock().unlock();
+    }
+  }
+
+  void put(String isbn, Book book, long currentTimeMs) {
+    byte[] isbnBytes = bytes(book.getIsbn());
+    byte[] titleBytes = bytes(book.getTitle());
+    byte[] authorBytes = bytes(book.getAuthor());
+    int length = HEADER_BYTES + encodedLength(isbnBytes) + encodedLength(titleBytes) + encodedLength(authorBytes)
+        + 2 * Integer.BYTES;
+    if (length > segmentSize || !fits(isbnBytes) || !fits(titleBytes) || !fits(authorBytes)) {
+      index.remove(isbn);
+      return;
+    }
+    Segment segment = segments[activeSegment];
+    if (segment.writeOffset + length > segmentSize) {
+      activeSegment = (activeSegment + 1) % segments.length;
+      segment = segments[activeSegment];
+      recycle(segment, activeSegment);
+    }
+    ByteBuffer buffer = segment.buffer;
+    int offset = segment.writeOffset;
+    int position = offset;
+    buffer.putInt(position, length);
+    buffer.putLong(position += Integer.BYTES, currentTimeMs);
+    position = putString(buffer, position + Long.BYTES, isbnBytes);
+    position = putString(buffer, position, titleBytes);
+    position = putString(buffer, position, authorBytes);
+    buffer.putInt(position, book.getPublicationYear() == null ? NULL_INTEGER : book.getPublicationYear());
+    buffer.putInt(position + Integer.BYTES, book.getAvailableCopies() == null ? NULL_INTEGER : book.getAvailableCopies());
+    segment.writeOffset = offset + length;
+    segment.isbns.add(isbn);
+    index.put(isbn, location(activeSegment, offset));
+  }
+
+  void remove(String isbn) {
+    index.remove(isbn);
+  }
+
+  int size() {
+    return index.size();
+  }
+
+  long usedBytes() {
+    long used = 0;
+    for (Segment segment : segments) {
+      used += segment.writeOffset;
+    }
+    return used;
+  }
+
+  long capacityBytes() {
+    return (long) segments.length * segmentSize;
+  }
+
+  @Override
+  public void close() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void recycle(Segment segment, int segmentIndex) {
+    segment.lock.writeLock().lock();
+    try {
+      segment.isbns.forEach(isbn -> index.computeIfPresent(isbn, (key, location) ->
+          segmentOf(location) == segmentIndex ? null : location));
+      segment.isbns.clear();
+      segment.writeOffset = 0;
+    } finally {
+      segment.lock.writeLock().unlock();
+    }
+  }
+
+  private Book decode(ByteBuffer buffer, int offset, long currentTimeMs) {
+    if (currentTimeMs - buffer.getLong(offset + Integer.BYTES) >= ttlMs) {
+      return null;
+    }
+    int[] position = {offset + HEADER_BYTES};
+    String isbn = getString(buffer, position);
+    String title = getString(buffer, position);
+    String author = getString(buffer, position);
+    int publicationYear = buffer.getInt(position[0]);
+    int availableCopies = buffer.getInt(position[0] + Integer.BYTES);
+    return Book.builder()
+        .isbn(isbn)
+        .title(title)
+        .author(author)
+        .publicationYear(publicationYear == NULL_INTEGER ? null : publicationYear)
+        .availableCopies(availableCopies == NULL_INTEGER ? null : availableCopies)
+        .build();
+  }
+
+  private static int putString(ByteBuffer buffer, int position, byte[] bytes) {
+    if (bytes == null) {
+      buffer.putShort(position, (short) NULL_LENGTH);
+      return position + Short.BYTES;
+    }
+    buffer.putShort(position, (short) bytes.length);
+    buffer.put(position + Short.BYTES, bytes);
+    return position + Short.BYTES + bytes.length;
+  }
+
+  private static String getString(ByteBuffer buffer, int[] position) {
+    short length = buffer.getShort(position[0]);
+    position[0] += Short.BYTES;
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(position[0], bytes);
+    position[0] += length;
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static byte[] bytes(String value) {
+    return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int encodedLength(byte[] bytes) {
+    return Short.BYTES + (bytes == null ? 0 : bytes.length);
+  }
+
+  private static boolean fits(byte[] bytes) {
+    return bytes == null || bytes.length <= Short.MAX_VALUE;
+  }
+
+  private static long location(int segmentIndex, int offset) {
+    return (long) segmentIndex << 32 | offset;
+  }
+
+  private static int segmentOf(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static int offsetOf(long location) {
+    return (int) location;
+  }
+
+  private static final class Segment {
+
+    private final ByteBuffer buffer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // ISBNs written to this segment since it was last recycled, possibly with duplicates
+    private final List<String> isbns = new ArrayList<>();
+    // Only advanced by the writer; read unguarded for footprint reporting
+    private volatile int writeOffset;
+
+    private Segment(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+}
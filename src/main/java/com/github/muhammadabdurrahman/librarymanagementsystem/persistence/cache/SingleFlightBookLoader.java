@@ -0,0 +1,59 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+// Coalesces concurrent cache misses for the same ISBN: the first caller runs the loader and the others wait for its result
+@Component
+public class SingleFlightBookLoader {
+
+  private final ConcurrentHashMap<String, CompletableFuture<Optional<Book>>> loadsInFlight = new ConcurrentHashMap<>();
+  private final Counter coalescedLoads;
+
+  public SingleFlightBookLoader(MeterRegistry meterRegistry) {
+    this.coalescedLoads = Counter.builder("book.cache.loads.coalesced")
+        .description("Cache misses that waited on an in-flight load of the same ISBN instead of querying the database")
+        .register(meterRegistry);
+  }
+
+  public Optional<Book> load(String isbn, Function<String, Optional<Book>> loader) {
+    var load = new CompletableFuture<Optional<Book>>();
+    CompletableFuture<Optional<Book>> inFlight = loadsInFlight.putIfAbsent(isbn, load);
+    if (inFlight != null) {
+      coalescedLoads.increment();
+      return await(inFlight);
+    }
+    try {
+      Optional<Book> book = loader.apply(isbn);
+      load.complete(book);
+      return book;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loadsInFlight.remove(isbn, load);
+    }
+  }
+
+  public long getCoalescedLoads() {
+    return (long) coalescedLoads.count();
+  }
+
+  private Optional<Book> await(CompletableFuture<Optional<Book>> inFlight) {
+    try {
+      return inFlight.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache.BookCacheItem;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A hashed timing wheel of cache items bucketed by the tick in which their ttl falls.
+ * <p>
+ * Advancing the wheel only visits the buckets whose ticks have elapsed, so the cost of a sweep is proportional to the number of
+ * items that are due rather than to the size of the cache. Items whose ttl was slid forward by a read (or that belong to a
+ * later revolution) are re-bucketed when their old bucket is visited, which keeps the read path free of wheel updates.
+ * <p>
+ * Not thread-safe; callers must hold the cache's eviction lock.
+ */
+class TimerWheel {
+
+  private final long tickMillis;
+  private final ArrayDeque<BookCacheItem>[] buckets;
+  private final int mask;
+  private long currentTick;
+
+  @SuppressWarnings("unchecked")
+  TimerWheel(Duration tick, Duration span, long currentTimeMs) {
+    this.tickMillis = Math.max(tick.toMillis(), 1);
+    int bucketCount = ceilingPowerOfTwo((int) Math.min(span.toMillis() / tickMillis + 2, 1 << 20));
+    this.buckets = new ArrayDeque[bucketCount];
+    for (int i = 0; i < bucketCount; i++) {
+      buckets[i] = new ArrayDeque<>();
+    }
+    this.mask = bucketCount - 1;
+    this.currentTick = currentTimeMs / tickMillis;
+  }
+
+  void schedule(BookCacheItem item) {
+    long tick = Math.max(item.getTtl() / tickMillis, currentTick);
+    buckets[(int) (tick & mask)].add(item);
+  }
+
+  // Visits every bucket whose tick has fully elapsed. Items that are no longer live (removed or replaced) are dropped, due items
+  // are handed to onExpiry and the rest are re-bucketed by their current ttl
+  void advance(long currentTimeMs, Predicate<BookCacheItem> isLive, Consumer<BookCacheItem> onExpiry) {
+    long targetTick = currentTimeMs / tickMillis;
+    // After a long pause every bucket is visited exactly once
+    currentTick = Math.max(currentTick, targetTick - buckets.length);
+    while (currentTick < targetTick) {
+      ArrayDeque<BookCacheItem> bucket = buckets[(int) (currentTick & mask)];
+      for (int remaining = bucket.size(); remaining > 0; remaining--) {
+        BookCacheItem item = bucket.poll();
+        if (!isLive.test(item)) {
+          continue;
+        }
+        if (item.isExpired(currentTimeMs)) {
+          onExpiry.accept(item);
+        } else {
+          schedule(item);
+        }
+      }
+      currentTick++;
+    }
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    return 1 << -Integer.numberOfLeadingZeros(x - 1);
+  }
+}
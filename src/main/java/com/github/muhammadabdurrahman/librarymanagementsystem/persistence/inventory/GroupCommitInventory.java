@@ -0,0 +1,199 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies borrows and returns in batches, each in a single transaction, so that concurrent requests share one commit.
+ * <p>
+ * Callers enqueue their request and wait for its outcome. A single committer thread takes the first queued request, then
+ * collects more until the window has elapsed or the batch is full. It locks the rows of every book in the batch with one
+ * {@code SELECT ... FOR UPDATE}, decides the requests in arrival order against the running number of available copies, writes
+ * the final count of every changed book in one JDBC batch and commits. Requests that cannot be served fail on their own; a
+ * failed transaction fails every request of the batch. Requests still queued when the inventory stops are failed, and callers
+ * give up waiting after the request timeout.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "group-commit")
+public class GroupCommitInventory {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final long windowNanos;
+  private final int batchSize;
+  private final long requestTimeoutNanos;
+  private final DistributionSummary batchSizes;
+  private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+  private Thread committer;
+  private volatile boolean stopped;
+
+  public GroupCommitInventory(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      GroupCommitInventoryProperties properties, MeterRegistry registry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.windowNanos = properties.window().toNanos();
+    this.batchSize = properties.batchSize();
+    this.requestTimeoutNanos = properties.requestTimeout().toNanos();
+    this.batchSizes = DistributionSummary.builder("inventory.group.commit.batch.size")
+        .description("Number of borrows and returns committed together")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  @PostConstruct
+  public void start() {
+    committer = Thread.ofPlatform().name("inventory-group-committer").daemon().start(this::run);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    stopped = true;
+    committer.interrupt();
+    committer.join();
+    // Requests enqueued after the committer drained the queue, see submit
+    failAll(new ArrayList<>(queue), new IllegalStateException("The inventory is shutting down"));
+    queue.clear();
+  }
+
+  public void borrow(String isbn) {
+    submit(isbn, -1);
+  }
+
+  public void giveBack(String isbn) {
+    submit(isbn, 1);
+  }
+
+  private void submit(String isbn, int change) {
+    if (stopped) {
+      throw new IllegalStateException("The inventory is shutting down");
+    }
+    var request = new Request(isbn, change, new CompletableFuture<>());
+    queue.add(request);
+    // stop may have drained the queue before the request was added. Whichever of the two removes it fails it
+    if (stopped && queue.remove(request)) {
+      throw new IllegalStateException("The inventory is shutting down");
+    }
+    try {
+      request.outcome().get(requestTimeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      // A request that was still queued is withdrawn; one that is being committed may yet be applied
+      boolean withdrawn = queue.remove(request);
+      throw new IllegalStateException("Timed out waiting for the group commit of " + isbn
+          + (withdrawn ? ", the change was not applied" : ", the change may still be applied"));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the group commit of " + isbn, e);
+    }
+  }
+
+  private void run() {
+    List<Request> batch = new ArrayList<>(batchSize);
+    try {
+      while (true) {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < batchSize) {
+          Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        try {
+          commit(batch);
+        } catch (Throwable e) {
+          // Keeps the committer alive, since the callers of every later request would otherwise wait in vain
+          log.error("Failed to complete a batch of {} borrows and returns", batch.size(), e);
+          failAll(batch, e);
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      queue.drainTo(batch);
+      failAll(batch, new IllegalStateException("The inventory is shutting down"));
+    }
+  }
+
+  // Requests whose outcome is already set are left as they are
+  private static void failAll(List<Request> requests, Throwable failure) {
+    requests.forEach(request -> request.outcome().completeExceptionally(failure));
+  }
+
+  private void commit(List<Request> batch) {
+    batchSizes.record(batch.size());
+    // Rejection of each request of the batch by position, null if it was applied
+    RuntimeException[] rejections = new RuntimeException[batch.size()];
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        Map<String, Integer> copies = lockCopies(batch);
+        Map<String, Integer> changed = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+          Request request = batch.get(i);
+          Integer available = copies.get(request.isbn());
+          if (available == null) {
+            rejections[i] = new BookNotFoundException(request.isbn());
+          } else if (available + request.change() < 0) {
+            rejections[i] = new InsufficientNumberOfAvailableCopiesException(request.isbn());
+          } else {
+            copies.put(request.isbn(), available + request.change());
+            changed.put(request.isbn(), available + request.change());
+          }
+        }
+        jdbcTemplate.batchUpdate("UPDATE books SET available_copies = ? WHERE isbn = ?", changed.entrySet().stream()
+            .map(change -> new Object[]{change.getValue(), change.getKey()})
+            .toList());
+      });
+    } catch (RuntimeException e) {
+      log.warn("Failed to commit a batch of {} borrows and returns", batch.size(), e);
+      failAll(batch, e);
+      return;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      if (rejections[i] == null) {
+        batch.get(i).outcome().complete(null);
+      } else {
+        batch.get(i).outcome().completeExceptionally(rejections[i]);
+      }
+    }
+  }
+
+  private Map<String, Integer> lockCopies(List<Request> batch) {
+    List<String> isbns = batch.stream().map(Request::isbn).distinct().sorted().toList();
+    String placeholders = String.join(", ", Collections.nCopies(isbns.size(), "?"));
+    Map<String, Integer> copies = new HashMap<>();
+    jdbcTemplate.query("SELECT isbn, available_copies FROM books WHERE isbn IN (" + placeholders + ") FOR UPDATE",
+        (RowCallbackHandler) rs -> copies.put(rs.getString("isbn"), rs.getInt("available_copies")), isbns.toArray());
+    return copies;
+  }
+
+  // A change in available copies waiting for its batch to commit
+  record Request(String isbn, int change, CompletableFuture<Void> outcome) {
+
+  }
+}
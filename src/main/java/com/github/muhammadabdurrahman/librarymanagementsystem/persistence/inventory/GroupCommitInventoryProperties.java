@@ -0,0 +1,24 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import java.time.Duration;
+import lombok.Builder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Builder
+@ConfigurationProperties(prefix = "inventory.group-commit")
+public record GroupCommitInventoryProperties(
+    // How long the first request of a batch waits for others to join it. Longer windows commit less often but add latency
+    @DefaultValue("2ms")
+    Duration window,
+
+    // A batch is committed as soon as it holds this many requests, even if its window is still open
+    @DefaultValue("64")
+    int batchSize,
+
+    // How long a caller waits for the outcome of its request. A request that is not committed by then may still be applied later
+    @DefaultValue("10s")
+    Duration requestTimeout
+) {
+
+}
@@ -0,0 +1,233 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-ahead journal of inventory changes that have not been written to the database yet.
+ * <p>
+ * Changes are written to the current segment file and then forced to disk by sync. Callers that sync while a force is in
+ * progress are covered by the next one, so concurrent borrows share the cost of a force. The journal also sums the changes of the
+ * current segment per ISBN; rotating hands those sums over for flushing and starts a new segment, which can be deleted once its
+ * sums are committed. A write that fails is truncated away and leaves no change behind.
+ * <p>
+ * Each record is framed by the length of its payload, the UTF-8 ISBN followed by the change in copies, and ends with a CRC32C of
+ * the payload. Replay stops at the first torn or corrupt record of a segment, since none after it was acknowledged either.
+ */
+@Slf4j
+class InventoryJournal implements AutoCloseable {
+
+  private static final String PREFIX = "inventory-";
+  private static final String SUFFIX = ".journal";
+  private static final int MAXIMUM_PAYLOAD_LENGTH = 1024;
+
+  private final Path directory;
+  // Guarded by this
+  private FileChannel channel;
+  private long segment;
+  private Map<String, Integer> changes = new HashMap<>();
+  private long written;
+  // Set when a failed write could not be truncated away, so that no record is written after the torn one until rotation
+  private boolean torn;
+  // Guarded by syncLock
+  private final Object syncLock = new Object();
+  private long synced;
+
+  InventoryJournal(Path directory, long firstSegment) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+      open(firstSegment);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open inventory journal in " + directory, e);
+    }
+  }
+
+  // Records a change in copies and returns its position, which sync takes to put it on disk. Nothing is recorded if it throws
+  long write(String isbn, int change) {
+    ByteBuffer record = record(isbn, change);
+    synchronized (this) {
+      if (torn) {
+        throw new IllegalStateException("Inventory journal segment " + segment + " ends with a torn record");
+      }
+      long end;
+      try {
+        end = channel.size();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to append to inventory journal", e);
+      }
+      try {
+        while (record.hasRemaining()) {
+          channel.write(record);
+        }
+      } catch (IOException e) {
+        truncate(end);
+        throw new UncheckedIOException("Failed to append to inventory journal", e);
+      }
+      changes.merge(isbn, change, Integer::sum);
+      return ++written;
+    }
+  }
+
+  // Returns once every change up to the given position is on disk
+  void sync(long position) {
+    synchronized (syncLock) {
+      if (synced >= position) {
+        return;
+      }
+      long target;
+      FileChannel current;
+      synchronized (this) {
+        target = written;
+        current = channel;
+      }
+      try {
+        current.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to sync inventory journal", e);
+      }
+      synced = target;
+    }
+  }
+
+  // Closes the current segment and returns its changes, or null if nothing was appended to it
+  Segment rotate() {
+    synchronized (syncLock) {
+      synchronized (this) {
+        if (changes.isEmpty()) {
+          return null;
+        }
+        var closed = new Segment(segment, changes);
+        try {
+          channel.force(false);
+          synced = written;
+          channel.close();
+          open(segment + 1);
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to rotate inventory journal", e);
+        }
+        return closed;
+      }
+    }
+  }
+
+  void delete(long segment) {
+    try {
+      Files.deleteIfExists(path(directory, segment));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete inventory journal segment " + segment, e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Segments left behind by a previous run, oldest first
+  static List<Segment> replay(Path directory) {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(path -> path.getFileName().toString())
+          .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+          .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+          .sorted()
+          .map(segment -> new Segment(segment, read(path(directory, segment))))
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to list inventory journal segments in " + directory, e);
+    }
+  }
+
+  private void truncate(long end) {
+    try {
+      channel.truncate(end);
+    } catch (IOException e) {
+      log.error("Failed to truncate a partly written record from inventory journal segment {}", segment, e);
+      torn = true;
+    }
+  }
+
+  private void open(long segment) throws IOException {
+    this.segment = segment;
+    this.changes = new HashMap<>();
+    this.torn = false;
+    this.channel = FileChannel.open(path(directory, segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+  }
+
+  private static ByteBuffer record(String isbn, int change) {
+    byte[] isbnBytes = isbn.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer payload = ByteBuffer.allocate(isbnBytes.length + Integer.BYTES)
+        .put(isbnBytes)
+        .putInt(change)
+        .flip();
+    return ByteBuffer.allocate(Integer.BYTES + payload.remaining() + Integer.BYTES)
+        .putInt(payload.remaining())
+        .put(payload.duplicate())
+        .putInt(checksum(payload.array()))
+        .flip();
+  }
+
+  private static Map<String, Integer> read(Path path) {
+    Map<String, Integer> changes = new HashMap<>();
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      while (true) {
+        int length = in.readInt();
+        if (length <= Integer.BYTES || length > MAXIMUM_PAYLOAD_LENGTH) {
+          log.warn("Stopped replaying inventory journal segment {} at a record of invalid length {}", path, length);
+          return changes;
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        if (in.readInt() != checksum(payload)) {
+          log.warn("Stopped replaying inventory journal segment {} at a record with a wrong checksum", path);
+          return changes;
+        }
+        String isbn = new String(payload, 0, length - Integer.BYTES, StandardCharsets.UTF_8);
+        changes.merge(isbn, ByteBuffer.wrap(payload).getInt(length - Integer.BYTES), Integer::sum);
+      }
+    } catch (EOFException e) {
+      return changes;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read inventory journal segment " + path, e);
+    }
+  }
+
+  private static int checksum(byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  private static Path path(Path directory, long segment) {
+    return directory.resolve(PREFIX + segment + SUFFIX);
+  }
+
+  // Net change in copies per ISBN recorded in a journal segment
+  record Segment(long id, Map<String, Integer> changes) {
+
+  }
+}
@@ -0,0 +1,175 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory.InventoryJournal.Segment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the available copies of borrowed and returned books in memory and writes them to the database behind the requests.
+ * <p>
+ * The counter of a book is loaded from the database the first time it is borrowed or returned and then stays authoritative.
+ * Borrows decrement it with a compare-and-set that never goes below zero, so requests for the same book do not wait on each
+ * other. Each change is appended to the {@link InventoryJournal} before the request is acknowledged, which makes it survive a
+ * crash. Only a change the journal failed to write is taken back from the counter. Once written, it is part of the segment that
+ * will be flushed, so if forcing it to disk fails the request fails but the change stands. Flushing rotates the journal and adds the net change per book of each closed segment to the database in one batched
+ * transaction, together with the id of the segment in inventory_checkpoint. On startup, segments newer than the checkpoint are
+ * applied before any counter is loaded, so a segment is applied exactly once however the previous run ended.
+ * <p>
+ * Counters only live in this instance, so the mode assumes a single instance writes to the inventory.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "write-behind")
+// The books table is created by Hibernate and must exist before the journal is recovered
+@DependsOn("entityManagerFactory")
+public class WriteBehindInventory {
+
+  private static final String APPLY_CHANGE = "UPDATE books SET available_copies = available_copies + ? WHERE isbn = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Path journalDirectory;
+  private final ConcurrentHashMap<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+  // Closed segments waiting to be written, oldest first. Guarded by this
+  private final Deque<Segment> unflushed = new ArrayDeque<>();
+  private InventoryJournal journal;
+
+  public WriteBehindInventory(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      WriteBehindInventoryProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.journalDirectory = properties.journalDirectory();
+  }
+
+  @PostConstruct
+  public void start() {
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS inventory_checkpoint (id INT PRIMARY KEY, segment BIGINT NOT NULL)");
+    Long checkpoint = jdbcTemplate.query("SELECT segment FROM inventory_checkpoint WHERE id = 1",
+        rs -> rs.next() ? rs.getLong(1) : null);
+    if (checkpoint == null) {
+      checkpoint = 0L;
+      jdbcTemplate.update("INSERT INTO inventory_checkpoint (id, segment) VALUES (1, 0)");
+    }
+    long lastSegment = checkpoint;
+    List<Segment> segments = InventoryJournal.replay(journalDirectory);
+    for (Segment segment : segments) {
+      if (segment.id() > checkpoint) {
+        apply(segment);
+        log.info("Recovered {} inventory changes from journal segment {}", segment.changes().size(), segment.id());
+      }
+      lastSegment = Math.max(lastSegment, segment.id());
+    }
+    journal = new InventoryJournal(journalDirectory, lastSegment + 1);
+    segments.forEach(segment -> journal.delete(segment.id()));
+  }
+
+  @PreDestroy
+  public void stop() {
+    flush();
+    journal.close();
+  }
+
+  public void borrow(String isbn) {
+    AtomicInteger counter = counter(isbn);
+    int copies;
+    do {
+      copies = counter.get();
+      if (copies <= 0) {
+        throw new InsufficientNumberOfAvailableCopiesException(isbn);
+      }
+    } while (!counter.compareAndSet(copies, copies - 1));
+    long position;
+    try {
+      position = journal.write(isbn, -1);
+    } catch (RuntimeException e) {
+      counter.incrementAndGet();
+      throw e;
+    }
+    journal.sync(position);
+  }
+
+  public void giveBack(String isbn) {
+    AtomicInteger counter = counter(isbn);
+    counter.incrementAndGet();
+    long position;
+    try {
+      position = journal.write(isbn, 1);
+    } catch (RuntimeException e) {
+      counter.decrementAndGet();
+      throw e;
+    }
+    journal.sync(position);
+  }
+
+  // Available copies held in memory, or null if the book has not been borrowed or returned since startup
+  public Integer availableCopies(String isbn) {
+    AtomicInteger counter = counters.get(isbn);
+    return counter == null ? null : counter.get();
+  }
+
+  // Drops the counter of a removed book and writes out its pending changes, which then match no row
+  public void forget(String isbn) {
+    counters.remove(isbn);
+    flush();
+  }
+
+  // Writes the changes of every closed segment to the database. A segment that fails is kept and retried on the next flush
+  public synchronized void flush() {
+    Segment rotated = journal.rotate();
+    if (rotated != null) {
+      unflushed.addLast(rotated);
+    }
+    while (!unflushed.isEmpty()) {
+      Segment segment = unflushed.peekFirst();
+      try {
+        apply(segment);
+      } catch (DataAccessException e) {
+        log.warn("Failed to write inventory journal segment {}, {} segments pending", segment.id(), unflushed.size(), e);
+        return;
+      }
+      unflushed.removeFirst();
+      journal.delete(segment.id());
+    }
+  }
+
+  private void apply(Segment segment) {
+    List<Object[]> arguments = segment.changes().entrySet().stream()
+        .filter(change -> change.getValue() != 0)
+        .map(change -> new Object[]{change.getValue(), change.getKey()})
+        .toList();
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.batchUpdate(APPLY_CHANGE, arguments);
+      jdbcTemplate.update("UPDATE inventory_checkpoint SET segment = ? WHERE id = 1", segment.id());
+    });
+  }
+
+  private AtomicInteger counter(String isbn) {
+    AtomicInteger counter = counters.get(isbn);
+    if (counter != null) {
+      return counter;
+    }
+    // Loaded outside the map so a slow query does not block other books hashing to the same bin
+    List<Integer> copies = jdbcTemplate.queryForList("SELECT available_copies FROM books WHERE isbn = ?", Integer.class, isbn);
+    if (copies.isEmpty()) {
+      throw new BookNotFoundException(isbn);
+    }
+    AtomicInteger loaded = new AtomicInteger(copies.getFirst());
+    AtomicInteger existing = counters.putIfAbsent(isbn, loaded);
+    return existing == null ? loaded : existing;
+  }
+}
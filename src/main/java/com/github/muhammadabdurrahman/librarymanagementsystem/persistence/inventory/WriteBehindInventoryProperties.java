@@ -0,0 +1,17 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import java.nio.file.Path;
+import lombok.Builder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Builder
+@ConfigurationProperties(prefix = "inventory.write-behind")
+public record WriteBehindInventoryProperties(
+    // Directory holding the journal of changes not yet written to the database. It must survive restarts and may only be used
+    // by one instance
+    @DefaultValue("inventory-journal")
+    Path journalDirectory
+) {
+
+}
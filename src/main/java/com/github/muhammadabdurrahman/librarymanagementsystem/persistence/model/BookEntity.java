@@ -3,13 +3,14 @@ package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = @Index(name = "idx_books_author_isbn", columnList = "author, isbn"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
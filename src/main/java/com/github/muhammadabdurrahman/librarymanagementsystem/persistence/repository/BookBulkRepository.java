@@ -0,0 +1,15 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.BookEntity;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Bulk operations that Spring Data cannot derive, implemented by BookBulkRepositoryImpl
+public interface BookBulkRepository {
+
+  // Inserts new books. Unlike saveAll, no SELECT is issued per book, so the inserts go out in JDBC batches
+  void persistAll(List<BookEntity> books);
+
+  // Visits every book in ISBN order through a database cursor, keeping at most fetchSize books in the persistence context
+  void forEachBook(int fetchSize, Consumer<BookEntity> action);
+}
@@ -0,0 +1,43 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.BookEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+public class BookBulkRepositoryImpl implements BookBulkRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  // save merges entities with an assigned id, which loads each one first. Persisting skips the lookup, and clearing afterwards
+  // keeps the persistence context from growing with every chunk of an import
+  @Override
+  public void persistAll(List<BookEntity> books) {
+    books.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  // The fetch size makes the driver stream rows instead of materialising the whole result, and read-only entities carry no
+  // dirty-checking snapshot. The entities already visited are cleared every fetchSize rows so the context does not grow with
+  // the catalog
+  @Override
+  public void forEachBook(int fetchSize, Consumer<BookEntity> action) {
+    try (Stream<BookEntity> books = entityManager.createQuery("SELECT b FROM BookEntity b ORDER BY b.isbn", BookEntity.class)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream()) {
+      long visited = 0;
+      for (var iterator = books.iterator(); iterator.hasNext(); ) {
+        action.accept(iterator.next());
+        if (++visited % fetchSize == 0) {
+          entityManager.clear();
+        }
+      }
+    }
+  }
+}
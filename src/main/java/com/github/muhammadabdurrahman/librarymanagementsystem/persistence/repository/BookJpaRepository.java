@@ -1,19 +1,64 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository;
 
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.BookEntity;
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface BookJpaRepository extends JpaRepository<BookEntity, String> {
+public interface BookJpaRepository extends JpaRepository<BookEntity, String>, BookBulkRepository {
 
-  List<BookEntity> findAllByAuthor(String author);
+  // Reads select the columns straight into Book, so no managed entity or dirty-checking snapshot is created for them. The
+  // lookups are written out as JPQL, whose parsed plan Hibernate caches, rather than derived into a new criteria query per call
+  @Query("""
+      SELECT new com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book(
+          b.isbn, b.title, b.author, b.publicationYear, b.availableCopies)
+      FROM BookEntity b WHERE b.isbn = :isbn""")
+  Optional<Book> findBookByIsbn(@Param("isbn") String isbn);
+
+  @Query("""
+      SELECT new com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book(
+          b.isbn, b.title, b.author, b.publicationYear, b.availableCopies)
+      FROM BookEntity b WHERE b.isbn IN :isbns""")
+  List<Book> findBooksByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+  // Keyset pages in ISBN order, backed by the primary key and the (author, isbn) index. The limit is applied to the query
+  @Query("""
+      SELECT new com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book(
+          b.isbn, b.title, b.author, b.publicationYear, b.availableCopies)
+      FROM BookEntity b WHERE b.isbn > :isbn ORDER BY b.isbn""")
+  List<Book> findByIsbnGreaterThanOrderByIsbn(@Param("isbn") String isbn, Limit limit);
+
+  @Query("""
+      SELECT new com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book(
+          b.isbn, b.title, b.author, b.publicationYear, b.availableCopies)
+      FROM BookEntity b WHERE b.author = :author AND b.isbn > :isbn ORDER BY b.isbn""")
+  List<Book> findByAuthorAndIsbnGreaterThanOrderByIsbn(@Param("author") String author, @Param("isbn") String isbn, Limit limit);
+
+  @Query("SELECT b.isbn FROM BookEntity b WHERE b.isbn IN :isbns")
+  List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
 
   @Lock(LockModeType.PESSIMISTIC_WRITE)
   @Query("SELECT b FROM BookEntity b WHERE b.isbn = :isbn")
   Optional<BookEntity> findByIdForUpdate(@Param("isbn") String isbn);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM BookEntity b WHERE b.isbn IN :isbns ORDER BY b.isbn")
+  List<BookEntity> findAllByIdForUpdate(@Param("isbns") Collection<String> isbns);
+
+  // Atomic check-and-decrement; returns 0 if the book does not exist or has no copies left
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE BookEntity b SET b.availableCopies = b.availableCopies - 1 WHERE b.isbn = :isbn AND b.availableCopies > 0")
+  int decrementAvailableCopies(@Param("isbn") String isbn);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE BookEntity b SET b.availableCopies = b.availableCopies + 1 WHERE b.isbn = :isbn")
+  int incrementAvailableCopies(@Param("isbn") String isbn);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  // Defers the action until the transaction commits, so caches never expose uncommitted state and are left untouched if the
+  // transaction rolls back. Runs the action immediately when called outside a transaction.
+  static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
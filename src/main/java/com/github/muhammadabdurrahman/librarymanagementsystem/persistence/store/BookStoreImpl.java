@@ -3,18 +3,38 @@ package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookAlreadyExistsException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult.Outcome;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
 import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.LockKey;
 import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.SynchronizedByReentrantLock;
+import com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource.PrimaryReads;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.AuthorIndex;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.SingleFlightBookLoader;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.BookEntity;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.mapper.BookEntityMapper;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +46,8 @@ public class BookStoreImpl implements BookStore {
 
   private final BookJpaRepository repository;
   private final BookCache cache;
+  private final SingleFlightBookLoader loader;
+  private final AuthorIndex authorIndex;
   private final BookEntityMapper mapper;
 
   @SynchronizedByReentrantLock
@@ -36,34 +58,161 @@ public class BookStoreImpl implements BookStore {
     }
     repository.saveAndFlush(mapper.map(book));
     cache.put(book.getIsbn(), book);
+    // A lookup that misses the database before the commit records the ISBN as missing again, so the entry is cleared after it
+    AfterCommit.run(() -> {
+      cache.removeMissing(book.getIsbn());
+      authorIndex.addIsbn(book.getAuthor(), book.getIsbn());
+    });
+  }
+
+  // Bulk counterpart of addBook for imports. No locks are taken, so an addBook of the same ISBN racing with the chunk can make the
+  // primary key reject the whole chunk, which the caller may store again. The cache is left cold rather than flooded with books
+  // that may never be read
+  @Override
+  public Set<String> addBooks(List<Book> books) {
+    if (books.isEmpty()) {
+      return Set.of();
+    }
+    Set<String> existing = Set.copyOf(repository.findExistingIsbns(books.stream().map(Book::getIsbn).toList()));
+    // Only the first of several books with the same ISBN is added
+    Set<String> seen = new HashSet<>(existing);
+    List<BookEntity> added = new ArrayList<>(books.size());
+    for (Book book : books) {
+      if (seen.add(book.getIsbn())) {
+        added.add(mapper.map(book));
+      }
+    }
+    repository.persistAll(added);
+    AfterCommit.run(() -> added.forEach(book -> {
+      cache.removeMissing(book.getIsbn());
+      authorIndex.addIsbn(book.getAuthor(), book.getIsbn());
+    }));
+    return existing;
   }
 
   @SynchronizedByReentrantLock
   @Override
   public void removeBook(@LockKey String isbn) {
-    if (!repository.existsById(isbn)) {
-      throw new BookNotFoundException(isbn);
-    }
+    BookEntity bookEntity = repository.findById(isbn).orElseThrow(() -> new BookNotFoundException(isbn));
     repository.deleteById(isbn);
     repository.flush();
     cache.remove(isbn);
+    AfterCommit.run(() -> authorIndex.removeIsbn(bookEntity.getAuthor(), isbn));
   }
 
+  // Reads run in read-only transactions, in which Hibernate does not flush (FlushMode.MANUAL) and loads entities read-only. Those
+  // that fill the cache or the author index read from the primary, the others may be served by the replica
+  @Transactional(readOnly = true)
   @Override
   public Optional<Book> findBookByIsbn(String isbn) {
-    return cache.get(isbn).or(() -> {
-      Optional<Book> book = repository.findById(isbn).map(mapper::map);
-      book.ifPresent(b -> cache.put(isbn, b));
-      return book;
-    });
+    Book cached = cache.getIfPresent(isbn);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    if (cache.isKnownMissing(isbn)) {
+      return Optional.empty();
+    }
+    return loader.load(isbn, this::loadBook);
+  }
+
+  private Optional<Book> loadBook(String isbn) {
+    Optional<Book> book = PrimaryReads.call(() -> repository.findBookByIsbn(isbn));
+    book.ifPresentOrElse(b -> cache.put(isbn, b), () -> cache.putMissing(isbn));
+    return book;
+  }
+
+  // Pages through the author index if the author is indexed, and otherwise with a keyset query on (author, isbn). A first page
+  // that holds all of the author's books indexes them
+  @Transactional(readOnly = true)
+  @Override
+  public BookPage findBooksByAuthor(String author, String afterIsbn, int limit) {
+    NavigableSet<String> isbns = authorIndex.get(author);
+    if (isbns != null) {
+      return resolvePage(author, isbns, afterIsbn, limit);
+    }
+    long generation = authorIndex.generation(author);
+    List<Book> books = PrimaryReads.call(
+        () -> repository.findByAuthorAndIsbnGreaterThanOrderByIsbn(author, keyAfter(afterIsbn), Limit.of(limit + 1)));
+    books.forEach(book -> cache.put(book.getIsbn(), book));
+    if (afterIsbn == null && books.size() <= limit) {
+      authorIndex.put(author, books.stream().map(Book::getIsbn).toList(), generation);
+    }
+    return page(books, limit);
   }
 
+  // Bypasses the cache, which would only be churned by a walk through the catalog
+  @Transactional(readOnly = true)
   @Override
-  public List<Book> findBooksByAuthor(String author) {
-    return mapper.map(repository.findAllByAuthor(author));
+  public BookPage findBooks(String afterIsbn, int limit) {
+    return page(repository.findByIsbnGreaterThanOrderByIsbn(keyAfter(afterIsbn), Limit.of(limit + 1)), limit);
   }
 
-  @SynchronizedByReentrantLock
+  // Answers from the cache first and loads all misses not known to be missing with a single query
+  @Transactional(readOnly = true)
+  @Override
+  public Map<String, Book> findBooksByIsbns(Collection<String> isbns) {
+    Map<String, Book> books = cache.getAllPresent(isbns);
+    List<String> misses = isbns.stream()
+        .distinct()
+        .filter(isbn -> !books.containsKey(isbn) && !cache.isKnownMissing(isbn))
+        .toList();
+    if (!misses.isEmpty()) {
+      List<Book> loaded = PrimaryReads.call(() -> repository.findBooksByIsbnIn(misses));
+      cache.putAll(loaded);
+      loaded.forEach(book -> books.put(book.getIsbn(), book));
+      if (loaded.size() < misses.size()) {
+        misses.stream().filter(isbn -> !books.containsKey(isbn)).forEach(cache::putMissing);
+      }
+    }
+    return books;
+  }
+
+  // Bypasses the cache, which would only be churned by a full scan
+  @Transactional(readOnly = true)
+  @Override
+  public void forEachBook(int fetchSize, Consumer<Book> action) {
+    repository.forEachBook(fetchSize, book -> action.accept(mapper.map(book)));
+  }
+
+  private BookPage resolvePage(String author, NavigableSet<String> isbns, String afterIsbn, int limit) {
+    Iterator<String> remaining = (afterIsbn == null ? isbns : isbns.tailSet(afterIsbn, false)).iterator();
+    List<String> pageIsbns = new ArrayList<>(limit);
+    while (pageIsbns.size() < limit && remaining.hasNext()) {
+      pageIsbns.add(remaining.next());
+    }
+    // Continues after the last indexed ISBN of the page even if it was pruned, so a page may come out short
+    return new BookPage(resolveIsbns(author, pageIsbns), remaining.hasNext() ? pageIsbns.getLast() : null);
+  }
+
+  // Resolves indexed ISBNs through the cache, loading only the misses from the database. ISBNs that no longer exist are
+  // pruned from the index.
+  private List<Book> resolveIsbns(String author, Collection<String> isbns) {
+    List<Book> books = new ArrayList<>(isbns.size());
+    List<String> misses = new ArrayList<>();
+    for (String isbn : isbns) {
+      Book cached = cache.getIfPresent(isbn);
+      if (cached != null) {
+        books.add(cached);
+      } else {
+        misses.add(isbn);
+      }
+    }
+    if (!misses.isEmpty()) {
+      List<Book> loaded = PrimaryReads.call(() -> repository.findBooksByIsbnIn(misses));
+      loaded.forEach(book -> {
+        cache.put(book.getIsbn(), book);
+        books.add(book);
+      });
+      if (loaded.size() < misses.size()) {
+        loaded.forEach(book -> misses.remove(book.getIsbn()));
+        misses.forEach(isbn -> authorIndex.removeIsbn(author, isbn));
+      }
+    }
+    books.sort(Comparator.comparing(Book::getIsbn));
+    return books;
+  }
+
+  @SynchronizedByReentrantLock(timeout = 5, unit = TimeUnit.SECONDS)
   @Override
   public void borrowBook(@LockKey String isbn) {
     BookEntity book = repository.findByIdForUpdate(isbn)
@@ -73,16 +222,74 @@ public class BookStoreImpl implements BookStore {
     }
     book.setAvailableCopies(book.getAvailableCopies() - 1);
     repository.save(book);
-    cache.remove(isbn);
+    Book updated = mapper.map(book);
+    AfterCommit.run(() -> cache.put(isbn, updated));
   }
 
-  @SynchronizedByReentrantLock
+  @SynchronizedByReentrantLock(timeout = 5, unit = TimeUnit.SECONDS)
   @Override
   public void returnBook(@LockKey String isbn) {
     BookEntity book = repository.findByIdForUpdate(isbn)
         .orElseThrow(() -> new BookNotFoundException(isbn));
     book.setAvailableCopies(book.getAvailableCopies() + 1);
     repository.save(book);
-    cache.remove(isbn);
+    Book updated = mapper.map(book);
+    AfterCommit.run(() -> cache.put(isbn, updated));
+  }
+
+  @SynchronizedByReentrantLock(timeout = 5, unit = TimeUnit.SECONDS)
+  @Override
+  public List<BatchItemResult> borrowBooks(@LockKey List<String> isbns) {
+    return updateAvailableCopies(isbns, -1);
+  }
+
+  @SynchronizedByReentrantLock(timeout = 5, unit = TimeUnit.SECONDS)
+  @Override
+  public List<BatchItemResult> returnBooks(@LockKey List<String> isbns) {
+    return updateAvailableCopies(isbns, 1);
+  }
+
+  // Locks the rows of all books with a single query, then applies the change item by item in the order of the ISBNs. Changed
+  // books are written in one flush and cached once the transaction commits
+  private List<BatchItemResult> updateAvailableCopies(List<String> isbns, int change) {
+    if (isbns.isEmpty()) {
+      return List.of();
+    }
+    Map<String, BookEntity> books = repository.findAllByIdForUpdate(Set.copyOf(isbns)).stream()
+        .collect(Collectors.toMap(BookEntity::getIsbn, Function.identity()));
+    List<BatchItemResult> results = new ArrayList<>(isbns.size());
+    Map<String, BookEntity> changed = new LinkedHashMap<>();
+    for (String isbn : isbns) {
+      BookEntity book = books.get(isbn);
+      if (book == null) {
+        results.add(new BatchItemResult(isbn, Outcome.BOOK_NOT_FOUND));
+      } else if (book.getAvailableCopies() + change < 0) {
+        results.add(new BatchItemResult(isbn, Outcome.INSUFFICIENT_COPIES));
+      } else {
+        book.setAvailableCopies(book.getAvailableCopies() + change);
+        changed.put(isbn, book);
+        results.add(new BatchItemResult(isbn, Outcome.SUCCEEDED));
+      }
+    }
+    if (!changed.isEmpty()) {
+      repository.saveAll(changed.values());
+      List<Book> updated = changed.values().stream().map(mapper::map).toList();
+      AfterCommit.run(() -> updated.forEach(book -> cache.put(book.getIsbn(), book)));
+    }
+    return results;
+  }
+
+  // Books were queried with one more than the limit to find out whether another page follows
+  private static BookPage page(List<Book> books, int limit) {
+    if (books.size() <= limit) {
+      return new BookPage(books, null);
+    }
+    List<Book> page = books.subList(0, limit);
+    return new BookPage(List.copyOf(page), page.getLast().getIsbn());
+  }
+
+  // ISBNs are never blank, so every ISBN sorts after the empty string
+  private static String keyAfter(String afterIsbn) {
+    return afterIsbn == null ? "" : afterIsbn;
   }
-}
\ No newline at end of file
+}
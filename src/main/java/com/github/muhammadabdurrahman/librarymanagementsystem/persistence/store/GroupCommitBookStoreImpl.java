@@ -0,0 +1,94 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory.GroupCommitInventory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+// Borrows and returns books through GroupCommitInventory, which commits concurrent requests together. Everything else is
+// delegated to BookStoreImpl. The batch has committed by the time a borrow or return returns, so the cached book is evicted
+// right away.
+@Component
+@Primary
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "group-commit")
+@RequiredArgsConstructor
+public class GroupCommitBookStoreImpl implements BookStore {
+
+  private final BookStoreImpl delegate;
+  private final GroupCommitInventory inventory;
+  private final BookCache cache;
+
+  @Override
+  public void addBook(Book book) {
+    delegate.addBook(book);
+  }
+
+  @Override
+  public Set<String> addBooks(List<Book> books) {
+    return delegate.addBooks(books);
+  }
+
+  @Override
+  public void removeBook(String isbn) {
+    delegate.removeBook(isbn);
+  }
+
+  @Override
+  public Optional<Book> findBookByIsbn(String isbn) {
+    return delegate.findBookByIsbn(isbn);
+  }
+
+  @Override
+  public BookPage findBooksByAuthor(String author, String afterIsbn, int limit) {
+    return delegate.findBooksByAuthor(author, afterIsbn, limit);
+  }
+
+  @Override
+  public BookPage findBooks(String afterIsbn, int limit) {
+    return delegate.findBooks(afterIsbn, limit);
+  }
+
+  @Override
+  public Map<String, Book> findBooksByIsbns(Collection<String> isbns) {
+    return delegate.findBooksByIsbns(isbns);
+  }
+
+  @Override
+  public void forEachBook(int fetchSize, Consumer<Book> action) {
+    delegate.forEachBook(fetchSize, action);
+  }
+
+  @Override
+  public void borrowBook(String isbn) {
+    inventory.borrow(isbn);
+    cache.remove(isbn);
+  }
+
+  @Override
+  public void returnBook(String isbn) {
+    inventory.giveBack(isbn);
+    cache.remove(isbn);
+  }
+
+  @Override
+  public List<BatchItemResult> borrowBooks(List<String> isbns) {
+    return delegate.borrowBooks(isbns);
+  }
+
+  @Override
+  public List<BatchItemResult> returnBooks(List<String> isbns) {
+    return delegate.returnBooks(isbns);
+  }
+}
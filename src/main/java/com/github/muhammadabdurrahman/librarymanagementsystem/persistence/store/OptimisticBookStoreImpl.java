@@ -0,0 +1,107 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Borrows and returns books with a single conditional UPDATE instead of a JVM lock plus a SELECT ... FOR UPDATE, so requests
+// for the same book only serialize on the row for the duration of the statement. Everything else is delegated to BookStoreImpl.
+// As concurrent commits may complete in any order, the cached book is evicted after commit rather than written through. Only
+// borrow and return are transactional here, so the delegated methods keep taking their lock outside their transaction.
+@Component
+@Primary
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "optimistic")
+@RequiredArgsConstructor
+public class OptimisticBookStoreImpl implements BookStore {
+
+  private final BookStoreImpl delegate;
+  private final BookJpaRepository repository;
+  private final BookCache cache;
+
+  @Override
+  public void addBook(Book book) {
+    delegate.addBook(book);
+  }
+
+  @Override
+  public Set<String> addBooks(List<Book> books) {
+    return delegate.addBooks(books);
+  }
+
+  @Override
+  public void removeBook(String isbn) {
+    delegate.removeBook(isbn);
+  }
+
+  @Override
+  public Optional<Book> findBookByIsbn(String isbn) {
+    return delegate.findBookByIsbn(isbn);
+  }
+
+  @Override
+  public BookPage findBooksByAuthor(String author, String afterIsbn, int limit) {
+    return delegate.findBooksByAuthor(author, afterIsbn, limit);
+  }
+
+  @Override
+  public BookPage findBooks(String afterIsbn, int limit) {
+    return delegate.findBooks(afterIsbn, limit);
+  }
+
+  @Override
+  public Map<String, Book> findBooksByIsbns(Collection<String> isbns) {
+    return delegate.findBooksByIsbns(isbns);
+  }
+
+  @Override
+  public void forEachBook(int fetchSize, Consumer<Book> action) {
+    delegate.forEachBook(fetchSize, action);
+  }
+
+  @Transactional
+  @Override
+  public void borrowBook(String isbn) {
+    if (repository.decrementAvailableCopies(isbn) == 0) {
+      if (!repository.existsById(isbn)) {
+        throw new BookNotFoundException(isbn);
+      }
+      throw new InsufficientNumberOfAvailableCopiesException(isbn);
+    }
+    AfterCommit.run(() -> cache.remove(isbn));
+  }
+
+  @Transactional
+  @Override
+  public void returnBook(String isbn) {
+    if (repository.incrementAvailableCopies(isbn) == 0) {
+      throw new BookNotFoundException(isbn);
+    }
+    AfterCommit.run(() -> cache.remove(isbn));
+  }
+
+  @Override
+  public List<BatchItemResult> borrowBooks(List<String> isbns) {
+    return delegate.borrowBooks(isbns);
+  }
+
+  @Override
+  public List<BatchItemResult> returnBooks(List<String> isbns) {
+    return delegate.returnBooks(isbns);
+  }
+}
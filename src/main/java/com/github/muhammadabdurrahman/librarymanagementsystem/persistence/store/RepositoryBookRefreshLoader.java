@@ -0,0 +1,30 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource.PrimaryReads;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookRefreshLoader;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Reloads go to the primary, as their results replace cached books
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RepositoryBookRefreshLoader implements BookRefreshLoader {
+
+  private final BookJpaRepository repository;
+
+  @Override
+  public Optional<Book> load(String isbn) {
+    return PrimaryReads.call(() -> repository.findBookByIsbn(isbn));
+  }
+
+  @Override
+  public List<Book> loadAll(List<String> isbns) {
+    return PrimaryReads.call(() -> repository.findBooksByIsbnIn(isbns));
+  }
+}
@@ -0,0 +1,132 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult.Outcome;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory.WriteBehindInventory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+// Borrows and returns books against the in-memory counters of WriteBehindInventory, which writes them to the database later.
+// Everything else is delegated to BookStoreImpl; as the database and the cache lag behind the counters, books read through it
+// get their available copies from the counter when there is one.
+@Component
+@Primary
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "write-behind")
+@RequiredArgsConstructor
+public class WriteBehindBookStoreImpl implements BookStore {
+
+  private final BookStoreImpl delegate;
+  private final WriteBehindInventory inventory;
+
+  @Override
+  public void addBook(Book book) {
+    delegate.addBook(book);
+  }
+
+  @Override
+  public Set<String> addBooks(List<Book> books) {
+    return delegate.addBooks(books);
+  }
+
+  @Override
+  public void removeBook(String isbn) {
+    delegate.removeBook(isbn);
+    inventory.forget(isbn);
+  }
+
+  @Override
+  public Optional<Book> findBookByIsbn(String isbn) {
+    return delegate.findBookByIsbn(isbn).map(this::withCurrentCopies);
+  }
+
+  @Override
+  public BookPage findBooksByAuthor(String author, String afterIsbn, int limit) {
+    return withCurrentCopies(delegate.findBooksByAuthor(author, afterIsbn, limit));
+  }
+
+  @Override
+  public BookPage findBooks(String afterIsbn, int limit) {
+    return withCurrentCopies(delegate.findBooks(afterIsbn, limit));
+  }
+
+  @Override
+  public Map<String, Book> findBooksByIsbns(Collection<String> isbns) {
+    return delegate.findBooksByIsbns(isbns).values().stream()
+        .map(this::withCurrentCopies)
+        .collect(Collectors.toMap(Book::getIsbn, book -> book));
+  }
+
+  @Override
+  public void forEachBook(int fetchSize, Consumer<Book> action) {
+    delegate.forEachBook(fetchSize, book -> action.accept(withCurrentCopies(book)));
+  }
+
+  @Override
+  public void borrowBook(String isbn) {
+    inventory.borrow(isbn);
+  }
+
+  @Override
+  public void returnBook(String isbn) {
+    inventory.giveBack(isbn);
+  }
+
+  // Counters are not transactional, so batches are applied item by item
+  @Override
+  public List<BatchItemResult> borrowBooks(List<String> isbns) {
+    return updateEach(isbns, inventory::borrow);
+  }
+
+  @Override
+  public List<BatchItemResult> returnBooks(List<String> isbns) {
+    return updateEach(isbns, inventory::giveBack);
+  }
+
+  private static List<BatchItemResult> updateEach(List<String> isbns, Consumer<String> update) {
+    List<BatchItemResult> results = new ArrayList<>(isbns.size());
+    for (String isbn : isbns) {
+      try {
+        update.accept(isbn);
+        results.add(new BatchItemResult(isbn, Outcome.SUCCEEDED));
+      } catch (BookNotFoundException e) {
+        results.add(new BatchItemResult(isbn, Outcome.BOOK_NOT_FOUND));
+      } catch (InsufficientNumberOfAvailableCopiesException e) {
+        results.add(new BatchItemResult(isbn, Outcome.INSUFFICIENT_COPIES));
+      }
+    }
+    return results;
+  }
+
+  private BookPage withCurrentCopies(BookPage page) {
+    return new BookPage(page.books().stream().map(this::withCurrentCopies).toList(), page.continuationIsbn());
+  }
+
+  private Book withCurrentCopies(Book book) {
+    Integer availableCopies = inventory.availableCopies(book.getIsbn());
+    if (availableCopies == null || availableCopies.equals(book.getAvailableCopies())) {
+      return book;
+    }
+    return Book.builder()
+        .isbn(book.getIsbn())
+        .title(book.getTitle())
+        .author(book.getAuthor())
+        .publicationYear(book.getPublicationYear())
+        .availableCopies(availableCopies)
+        .build();
+  }
+}
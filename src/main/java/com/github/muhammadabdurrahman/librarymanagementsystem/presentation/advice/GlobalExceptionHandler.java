@@ -3,15 +3,20 @@ package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.advi
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookAlreadyExistsException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception.LockLostException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception.LockTimeoutException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.exception.CustomProblem;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.exception.InvalidPageTokenException;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 import org.zalando.problem.Problem;
 import org.zalando.problem.Status;
@@ -64,6 +69,33 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(Status.CONFLICT.getStatusCode()).body(problem);
   }
 
+  @ExceptionHandler(LockTimeoutException.class)
+  public ResponseEntity<Problem> handleLockTimeoutException(LockTimeoutException ex, NativeWebRequest request) {
+    var problem = CustomProblem.builder()
+        .title("Too many concurrent requests for the same resource")
+        .detail(ex.getMessage())
+        .status(Status.SERVICE_UNAVAILABLE)
+        .message("The resource is busy, please retry later")
+        .build();
+    return ResponseEntity.status(Status.SERVICE_UNAVAILABLE.getStatusCode())
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+        .body(problem);
+  }
+
+  // The transaction was rolled back, so the request can safely be repeated
+  @ExceptionHandler(LockLostException.class)
+  public ResponseEntity<Problem> handleLockLostException(LockLostException ex, NativeWebRequest request) {
+    var problem = CustomProblem.builder()
+        .title("The lock on the resource was lost")
+        .detail(ex.getMessage())
+        .status(Status.SERVICE_UNAVAILABLE)
+        .message("The request was rolled back, please retry")
+        .build();
+    return ResponseEntity.status(Status.SERVICE_UNAVAILABLE.getStatusCode())
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(problem);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Problem> handleValidationExceptions(MethodArgumentNotValidException ex, NativeWebRequest request) {
     final Set<String> validationErrors = new HashSet<>();
@@ -80,6 +112,35 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(problem);
   }
 
+  @ExceptionHandler(HandlerMethodValidationException.class)
+  public ResponseEntity<Problem> handleParameterValidationExceptions(HandlerMethodValidationException ex,
+      NativeWebRequest request) {
+    final Set<String> validationErrors = new HashSet<>();
+    ex.getParameterValidationResults().forEach(result -> result.getResolvableErrors()
+        .forEach(error -> validationErrors.add("[parameter: %s, error: %s]".formatted(
+            result.getMethodParameter().getParameterName(), error.getDefaultMessage()))));
+
+    var problem = CustomProblem.builder()
+        .title("Validation errors occurred")
+        .detail(String.join(", ", validationErrors))
+        .status(Status.BAD_REQUEST)
+        .message("Validation failed for one or more parameters")
+        .build();
+
+    return ResponseEntity.badRequest().body(problem);
+  }
+
+  @ExceptionHandler(InvalidPageTokenException.class)
+  public ResponseEntity<Problem> handleInvalidPageTokenException(InvalidPageTokenException ex, NativeWebRequest request) {
+    var problem = CustomProblem.builder()
+        .title("Invalid page token")
+        .detail(ex.getMessage())
+        .status(Status.BAD_REQUEST)
+        .message("The page token was not returned by a previous page")
+        .build();
+    return ResponseEntity.badRequest().body(problem);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Problem> handleGenericException(Exception ex, NativeWebRequest request) {
     log.error("An unexpected error occurred", ex);
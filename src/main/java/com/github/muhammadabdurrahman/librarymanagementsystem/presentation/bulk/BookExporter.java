@@ -0,0 +1,114 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.service.LibraryService;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper.BookResourceMapper;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the whole catalog as NDJSON or as a compact binary stream.
+ * <p>
+ * Books are read through a database cursor in ISBN order and each one is written to the output as soon as it is read, so neither
+ * the result set nor the response is ever held in memory. Output goes through a single buffer that is flushed to the response
+ * when it fills up.
+ * <p>
+ * A binary record holds the isbn, title and author as length-prefixed modified UTF-8 strings followed by the publication year and
+ * available copies as big-endian 32-bit integers, as written by {@link java.io.DataOutput}.
+ */
+@Component
+public class BookExporter {
+
+  public static final MediaType APPLICATION_NDJSON = BookImporter.APPLICATION_NDJSON;
+  public static final MediaType APPLICATION_OCTET_STREAM = MediaType.APPLICATION_OCTET_STREAM;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final LibraryService libraryService;
+  private final BookResourceMapper mapper;
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter jsonWriter;
+  private final int fetchSize;
+
+  public BookExporter(LibraryService libraryService, BookResourceMapper mapper, ObjectMapper objectMapper,
+      BulkProperties properties) {
+    this.libraryService = libraryService;
+    this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    // The generator is flushed when its buffer fills up rather than after every book
+    this.jsonWriter = objectMapper.writerFor(BookResource.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.fetchSize = properties.exportFetchSize();
+  }
+
+  // Binary if the first supported type in the Accept header asks for it, NDJSON otherwise
+  public static MediaType negotiateFormat(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return APPLICATION_NDJSON;
+    }
+    List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+    return acceptedTypes.stream()
+        .filter(type -> APPLICATION_NDJSON.equalsTypeAndSubtype(type) || APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(type))
+        .findFirst()
+        .orElse(APPLICATION_NDJSON);
+  }
+
+  public void exportBooks(OutputStream output, MediaType format) throws IOException {
+    try {
+      if (APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(format)) {
+        exportBinary(output);
+      } else {
+        exportNdjson(output);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void exportNdjson(OutputStream output) throws IOException {
+    // The response stream belongs to the container, so the generator must not close it. Books are separated by the newline
+    // written after each one rather than the default space between root values
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .setRootValueSeparator(null)) {
+      libraryService.exportBooks(fetchSize, book -> {
+        try {
+          jsonWriter.writeValue(generator, mapper.map(book));
+          generator.writeRaw('\n');
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+
+  private void exportBinary(OutputStream output) throws IOException {
+    var data = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+    libraryService.exportBooks(fetchSize, book -> {
+      try {
+        writeBinary(data, book);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    data.flush();
+  }
+
+  private static void writeBinary(DataOutputStream data, Book book) throws IOException {
+    data.writeUTF(book.getIsbn());
+    data.writeUTF(book.getTitle());
+    data.writeUTF(book.getAuthor());
+    data.writeInt(book.getPublicationYear());
+    data.writeInt(book.getAvailableCopies());
+  }
+}
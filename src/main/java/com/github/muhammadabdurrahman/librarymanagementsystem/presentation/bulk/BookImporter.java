@@ -0,0 +1,219 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.service.LibraryService;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookImportErrorResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookImportReportResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper.BookResourceMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports books from an NDJSON or CSV stream.
+ * <p>
+ * The stream is read one line at a time and each record is parsed and validated on its own, so a bad record is reported with
+ * its line number without failing the import. Valid records are gathered into chunks of {@code bulk.importChunkSize}; each
+ * chunk is checked against the catalog with a single query and inserted in one transaction. Memory use is bounded by the chunk
+ * size and the number of reported errors, whatever the size of the stream.
+ * <p>
+ * Chunks take no locks, so a single add can insert one of a chunk's ISBNs between the check and the insert. The primary key then
+ * rejects the whole chunk. It is stored again in a new transaction, whose check reports that book as already existing, up to
+ * {@value #MAXIMUM_CHUNK_ATTEMPTS} times before every record of the chunk is rejected.
+ * <p>
+ * CSV records hold isbn, title, author, publicationYear and availableCopies in that order, optionally after a header line.
+ * Fields may be quoted, but may not span lines.
+ */
+@Slf4j
+@Component
+public class BookImporter {
+
+  public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+  public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+  private static final int CSV_FIELDS = 5;
+  private static final int MAXIMUM_CHUNK_ATTEMPTS = 3;
+
+  private final LibraryService libraryService;
+  private final BookResourceMapper mapper;
+  private final ObjectReader jsonReader;
+  private final Validator validator;
+  private final int chunkSize;
+  private final int maximumReportedErrors;
+
+  public BookImporter(LibraryService libraryService, BookResourceMapper mapper, ObjectMapper objectMapper, Validator validator,
+      BulkProperties properties) {
+    this.libraryService = libraryService;
+    this.mapper = mapper;
+    this.jsonReader = objectMapper.readerFor(BookResource.class);
+    this.validator = validator;
+    this.chunkSize = properties.importChunkSize();
+    this.maximumReportedErrors = properties.maximumReportedErrors();
+  }
+
+  public BookImportReportResource importBooks(InputStream input, MediaType contentType) throws IOException {
+    boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+    var report = new Report();
+    List<Record> chunk = new ArrayList<>(chunkSize);
+    Set<String> chunkIsbns = new HashSet<>();
+    try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      String line;
+      long lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank() || csv && lineNumber == 1 && line.startsWith("isbn")) {
+          continue;
+        }
+        BookResource resource;
+        try {
+          resource = csv ? parseCsv(line) : jsonReader.readValue(line);
+        } catch (JsonProcessingException e) {
+          report.reject(lineNumber, null, "Malformed JSON record");
+          continue;
+        } catch (IllegalArgumentException e) {
+          report.reject(lineNumber, null, e.getMessage());
+          continue;
+        }
+        Set<ConstraintViolation<BookResource>> violations = validator.validate(resource);
+        if (!violations.isEmpty()) {
+          report.reject(lineNumber, resource.isbn(), violations.stream()
+              .map(ConstraintViolation::getMessage)
+              .sorted()
+              .collect(Collectors.joining(", ")));
+        } else if (!chunkIsbns.add(resource.isbn())) {
+          report.reject(lineNumber, resource.isbn(), "Duplicate ISBN in import");
+        } else {
+          chunk.add(new Record(lineNumber, mapper.map(resource)));
+          if (chunk.size() == chunkSize) {
+            importChunk(chunk, report);
+            chunk.clear();
+            chunkIsbns.clear();
+          }
+        }
+      }
+    }
+    if (!chunk.isEmpty()) {
+      importChunk(chunk, report);
+    }
+    return report.toResource();
+  }
+
+  private void importChunk(List<Record> chunk, Report report) {
+    Set<String> existing;
+    try {
+      existing = storeChunk(chunk.stream().map(Record::book).toList());
+    } catch (RuntimeException e) {
+      log.warn("Failed to import {} books from line {}", chunk.size(), chunk.getFirst().line(), e);
+      chunk.forEach(record -> report.reject(record.line(), record.book().getIsbn(), "Failed to store the book"));
+      return;
+    }
+    for (Record record : chunk) {
+      if (existing.contains(record.book().getIsbn())) {
+        report.reject(record.line(), record.book().getIsbn(), "Book already exists");
+      } else {
+        report.imported++;
+      }
+    }
+  }
+
+  private Set<String> storeChunk(List<Book> books) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return libraryService.importBooks(books);
+      } catch (DataIntegrityViolationException e) {
+        if (attempt == MAXIMUM_CHUNK_ATTEMPTS) {
+          throw e;
+        }
+        log.info("Chunk of {} books conflicted with a concurrent insert, storing it again", books.size());
+      }
+    }
+  }
+
+  private static BookResource parseCsv(String line) {
+    List<String> fields = csvFields(line);
+    if (fields.size() != CSV_FIELDS) {
+      throw new IllegalArgumentException("Expected %d fields but found %d".formatted(CSV_FIELDS, fields.size()));
+    }
+    try {
+      return new BookResource(blankToNull(fields.get(0)), blankToNull(fields.get(1)), blankToNull(fields.get(2)),
+          parseInteger(fields.get(3)), parseInteger(fields.get(4)));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Publication year and available copies must be numbers");
+    }
+  }
+
+  private static List<String> csvFields(String line) {
+    List<String> fields = new ArrayList<>(CSV_FIELDS);
+    var field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static String blankToNull(String field) {
+    return field.isBlank() ? null : field.trim();
+  }
+
+  private static Integer parseInteger(String field) {
+    return field.isBlank() ? null : Integer.valueOf(field.trim());
+  }
+
+  private record Record(long line, Book book) {
+
+  }
+
+  private final class Report {
+
+    private final List<BookImportErrorResource> errors = new ArrayList<>();
+    private long imported;
+    private long rejected;
+
+    private void reject(long line, String isbn, String message) {
+      rejected++;
+      if (errors.size() < maximumReportedErrors) {
+        errors.add(new BookImportErrorResource(line, isbn, message));
+      }
+    }
+
+    private BookImportReportResource toResource() {
+      return new BookImportReportResource(imported, rejected, errors);
+    }
+  }
+}
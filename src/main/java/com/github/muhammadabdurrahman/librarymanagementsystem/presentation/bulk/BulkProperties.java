@@ -0,0 +1,23 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk;
+
+import lombok.Builder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Builder
+@ConfigurationProperties(prefix = "bulk")
+public record BulkProperties(
+    // Number of valid records of an import checked for existing ISBNs and inserted per transaction
+    @DefaultValue("1000")
+    int importChunkSize,
+
+    // Errors listed in an import report beyond this number are only counted
+    @DefaultValue("1000")
+    int maximumReportedErrors,
+
+    // Rows an export fetches from the database per round trip, and books it keeps in the persistence context
+    @DefaultValue("500")
+    int exportFetchSize
+) {
+
+}
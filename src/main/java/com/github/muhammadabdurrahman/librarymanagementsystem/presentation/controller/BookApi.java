@@ -1,24 +1,40 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.controller;
 
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchItemResultResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchRequestResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookImportReportResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookLookupResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookPageResource;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookResource;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Books", description = "Operations related to books in the library")
 @RequestMapping("/api/v1/books")
@@ -37,18 +53,50 @@ public interface BookApi {
       })
   BookResource findBookByIsbn(@PathVariable String isbn);
 
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(
+      summary = "List books",
+      description = "Retrieve a page of at most 100 books in ISBN order. The next page is requested with the nextPageToken of "
+          + "the previous one",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Page of books",
+              content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookPageResource.class))),
+          @ApiResponse(responseCode = "400", description = "Invalid page size or page token",
+              content = @Content)
+      })
+  BookPageResource findBooks(@RequestParam(defaultValue = "50") @Min(1) @Max(100) int pageSize,
+      @RequestParam(required = false) String pageToken);
+
   @GetMapping(value = "/author/{author}", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
   @Operation(
       summary = "Get books by author",
-      description = "Retrieve a list of books by the author's name",
+      description = "Retrieve a page of at most 100 books by the author's name in ISBN order. The next page is requested with "
+          + "the nextPageToken of the previous one",
       responses = {
-          @ApiResponse(responseCode = "200", description = "Books found",
-              content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookResource.class))),
-          @ApiResponse(responseCode = "404", description = "No books found for the author",
+          @ApiResponse(responseCode = "200", description = "Page of books by the author",
+              content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookPageResource.class))),
+          @ApiResponse(responseCode = "400", description = "Invalid page size or page token",
               content = @Content)
       })
-  List<BookResource> findBooksByAuthor(@PathVariable String author);
+  BookPageResource findBooksByAuthor(@PathVariable String author,
+      @RequestParam(defaultValue = "50") @Min(1) @Max(100) int pageSize,
+      @RequestParam(required = false) String pageToken);
+
+  @GetMapping(params = "isbns", produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(
+      summary = "Get several books by ISBN",
+      description = "Retrieve the details of up to 100 books in one request, e.g. ?isbns=978-0-596-52068-1,978-0-596-52068-2",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "One result per ISBN, in request order",
+              content = @Content(mediaType = "application/json",
+                  array = @ArraySchema(schema = @Schema(implementation = BookLookupResource.class)))),
+          @ApiResponse(responseCode = "400", description = "No ISBNs or more than 100 ISBNs",
+              content = @Content)
+      })
+  List<BookLookupResource> findBooksByIsbns(@RequestParam @Size(min = 1, max = 100) List<String> isbns);
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
@@ -67,6 +115,44 @@ public interface BookApi {
       })
   void addBook(@RequestBody @Valid BookResource book);
 
+  @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"}, produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(
+      summary = "Import books",
+      description = "Add books from an NDJSON stream of books or a CSV stream of "
+          + "isbn,title,author,publicationYear,availableCopies records. Invalid records and books that already exist are "
+          + "reported and skipped",
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          description = "One book per line",
+          content = {
+              @Content(mediaType = "application/x-ndjson",
+                  examples = @ExampleObject(value = "{ \"isbn\": \"978-0-596-52068-1\", \"title\": \"The Hobbit\", \"author\": \"J. R. R. Tolkien\", \"publicationYear\": 2001, \"availableCopies\": 5 }")),
+              @Content(mediaType = "text/csv",
+                  examples = @ExampleObject(value = "isbn,title,author,publicationYear,availableCopies\n978-0-596-52068-1,The Hobbit,J. R. R. Tolkien,2001,5"))
+          }
+      ),
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Number of imported and rejected records and why each was rejected",
+              content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookImportReportResource.class)))
+      })
+  BookImportReportResource importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body)
+      throws IOException;
+
+  @GetMapping(value = "/export", produces = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+  @Operation(
+      summary = "Export books",
+      description = "Stream every book of the library in ISBN order, as NDJSON or, if application/octet-stream is accepted "
+          + "first, as binary records of isbn, title and author in the modified UTF-8 of DataOutput.writeUTF followed by "
+          + "publicationYear and availableCopies as 32-bit big-endian integers",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "All books, one record after another",
+              content = {
+                  @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BookResource.class)),
+                  @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+              })
+      })
+  ResponseEntity<StreamingResponseBody> exportBooks(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept);
+
   @PutMapping(value = "/{isbn}/borrow", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.OK)
   @Operation(
@@ -91,6 +177,44 @@ public interface BookApi {
       })
   void returnBook(@PathVariable String isbn);
 
+  @PostMapping(value = "/borrow:batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(
+      summary = "Borrow several books",
+      description = "Borrow a copy of each listed book in a single transaction. Each ISBN succeeds or fails on its own",
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          description = "ISBNs of the books to borrow, at most 100",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchRequestResource.class),
+              examples = @ExampleObject(value = "{ \"isbns\": [\"978-0-596-52068-1\", \"978-0-596-52068-2\"] }"))
+      ),
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Outcome of each ISBN, in request order",
+              content = @Content(mediaType = "application/json",
+                  array = @ArraySchema(schema = @Schema(implementation = BatchItemResultResource.class)))),
+          @ApiResponse(responseCode = "400", description = "Invalid payload",
+              content = @Content)
+      })
+  List<BatchItemResultResource> borrowBooks(@RequestBody @Valid BatchRequestResource request);
+
+  @PostMapping(value = "/return:batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(
+      summary = "Return several books",
+      description = "Return a copy of each listed book in a single transaction. Each ISBN succeeds or fails on its own",
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          description = "ISBNs of the books to return, at most 100",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchRequestResource.class),
+              examples = @ExampleObject(value = "{ \"isbns\": [\"978-0-596-52068-1\", \"978-0-596-52068-2\"] }"))
+      ),
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Outcome of each ISBN, in request order",
+              content = @Content(mediaType = "application/json",
+                  array = @ArraySchema(schema = @Schema(implementation = BatchItemResultResource.class)))),
+          @ApiResponse(responseCode = "400", description = "Invalid payload",
+              content = @Content)
+      })
+  List<BatchItemResultResource> returnBooks(@RequestBody @Valid BatchRequestResource request);
+
   @DeleteMapping(value = "/{isbn}", produces = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.NO_CONTENT)
   @Operation(
@@ -1,12 +1,27 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.controller;
 
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.service.LibraryService;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk.BookExporter;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk.BookImporter;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchItemResultResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchRequestResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookImportReportResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookLookupResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookPageResource;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookResource;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper.BookResourceMapper;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -14,6 +29,8 @@ public class BookController implements BookApi {
 
   private final LibraryService libraryService;
   private final BookResourceMapper mapper;
+  private final BookImporter bookImporter;
+  private final BookExporter bookExporter;
 
   @Override
   public BookResource findBookByIsbn(String isbn) {
@@ -21,8 +38,24 @@ public class BookController implements BookApi {
   }
 
   @Override
-  public List<BookResource> findBooksByAuthor(String author) {
-    return mapper.map(libraryService.findBooksByAuthor(author));
+  public BookPageResource findBooks(int pageSize, String pageToken) {
+    return toResource(libraryService.findBooks(PageToken.decode(pageToken), pageSize));
+  }
+
+  @Override
+  public BookPageResource findBooksByAuthor(String author, int pageSize, String pageToken) {
+    return toResource(libraryService.findBooksByAuthor(author, PageToken.decode(pageToken), pageSize));
+  }
+
+  @Override
+  public List<BookLookupResource> findBooksByIsbns(List<String> isbns) {
+    Map<String, Book> books = libraryService.findBooksByIsbns(isbns);
+    return isbns.stream()
+        .map(isbn -> {
+          Book book = books.get(isbn);
+          return new BookLookupResource(isbn, book != null, book == null ? null : mapper.map(book));
+        })
+        .toList();
   }
 
   @Override
@@ -30,6 +63,20 @@ public class BookController implements BookApi {
     libraryService.addBook(mapper.map(book));
   }
 
+  @Override
+  public BookImportReportResource importBooks(String contentType, InputStream body) throws IOException {
+    return bookImporter.importBooks(body, MediaType.parseMediaType(contentType));
+  }
+
+  // The body is written by an MVC async thread after the handler returns, so no request thread is held for the whole export
+  @Override
+  public ResponseEntity<StreamingResponseBody> exportBooks(String accept) {
+    MediaType format = BookExporter.negotiateFormat(accept);
+    return ResponseEntity.ok()
+        .contentType(format)
+        .body(output -> bookExporter.exportBooks(output, format));
+  }
+
   @Override
   public void borrowBook(String isbn) {
     libraryService.borrowBook(isbn);
@@ -40,8 +87,22 @@ public class BookController implements BookApi {
     libraryService.returnBook(isbn);
   }
 
+  @Override
+  public List<BatchItemResultResource> borrowBooks(@Valid BatchRequestResource request) {
+    return mapper.mapResults(libraryService.borrowBooks(request.isbns()));
+  }
+
+  @Override
+  public List<BatchItemResultResource> returnBooks(@Valid BatchRequestResource request) {
+    return mapper.mapResults(libraryService.returnBooks(request.isbns()));
+  }
+
   @Override
   public void removeBook(String isbn) {
     libraryService.removeBook(isbn);
   }
+
+  private BookPageResource toResource(BookPage page) {
+    return new BookPageResource(mapper.map(page.books()), PageToken.encode(page.continuationIsbn()));
+  }
 }
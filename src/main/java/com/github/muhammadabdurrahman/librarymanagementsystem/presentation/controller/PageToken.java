@@ -0,0 +1,38 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.controller;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.exception.InvalidPageTokenException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Continuation tokens of paged responses. The ISBN a page ends with is encoded so clients treat the token as opaque and the
+// keyset can change without breaking them
+final class PageToken {
+
+  private static final String PREFIX = "isbn:";
+
+  private PageToken() {
+  }
+
+  static String encode(String isbn) {
+    if (isbn == null) {
+      return null;
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + isbn).getBytes(StandardCharsets.UTF_8));
+  }
+
+  static String decode(String pageToken) {
+    if (pageToken == null) {
+      return null;
+    }
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPageTokenException(pageToken);
+    }
+    if (!decoded.startsWith(PREFIX) || decoded.length() == PREFIX.length()) {
+      throw new InvalidPageTokenException(pageToken);
+    }
+    return decoded.substring(PREFIX.length());
+  }
+}
@@ -0,0 +1,8 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.exception;
+
+public class InvalidPageTokenException extends RuntimeException {
+
+  public InvalidPageTokenException(String pageToken) {
+    super("Page token %s is not valid".formatted(pageToken));
+  }
+}
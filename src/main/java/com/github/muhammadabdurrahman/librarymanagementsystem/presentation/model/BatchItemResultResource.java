@@ -0,0 +1,17 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model;
+
+import lombok.Builder;
+
+@Builder
+public record BatchItemResultResource(
+    String isbn,
+
+    Outcome outcome
+) {
+
+  public enum Outcome {
+    SUCCEEDED,
+    BOOK_NOT_FOUND,
+    INSUFFICIENT_COPIES
+  }
+}
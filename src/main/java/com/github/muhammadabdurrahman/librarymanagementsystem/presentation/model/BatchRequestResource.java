@@ -0,0 +1,16 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record BatchRequestResource(
+    @NotEmpty(message = "At least one ISBN is required")
+    @Size(max = 100, message = "At most 100 ISBNs can be processed in one batch")
+    List<@NotBlank(message = "ISBN is required") String> isbns
+) {
+
+}
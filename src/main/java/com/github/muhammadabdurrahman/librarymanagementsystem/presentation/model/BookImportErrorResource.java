@@ -0,0 +1,15 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model;
+
+import lombok.Builder;
+
+// Rejected record of an import. The ISBN is null if the record could not be parsed
+@Builder
+public record BookImportErrorResource(
+    long line,
+
+    String isbn,
+
+    String message
+) {
+
+}
@@ -0,0 +1,16 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record BookImportReportResource(
+    long imported,
+
+    long rejected,
+
+    // Rejected records, up to bulk.maximumReportedErrors of them
+    List<BookImportErrorResource> errors
+) {
+
+}
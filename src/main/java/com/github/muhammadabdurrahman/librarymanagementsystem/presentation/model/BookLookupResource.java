@@ -0,0 +1,15 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model;
+
+import lombok.Builder;
+
+// Result of looking up one ISBN of a batch; book is null when found is false
+@Builder
+public record BookLookupResource(
+    String isbn,
+
+    boolean found,
+
+    BookResource book
+) {
+
+}
@@ -0,0 +1,14 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record BookPageResource(
+    List<BookResource> books,
+
+    // Passed as pageToken to get the next page; null on the last page
+    String nextPageToken
+) {
+
+}
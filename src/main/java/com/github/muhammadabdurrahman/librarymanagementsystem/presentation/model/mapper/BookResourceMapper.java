@@ -1,6 +1,8 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper;
 
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchItemResultResource;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookResource;
 import java.util.List;
 import org.mapstruct.Mapper;
@@ -14,4 +16,6 @@ public interface BookResourceMapper {
 
   Book map(BookResource bookResource);
 
+  List<BatchItemResultResource> mapResults(List<BatchItemResult> results);
+
 }
@@ -0,0 +1,18 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.schedule;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCacheSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CacheSnapshotScheduledTask {
+
+  private final BookCacheSnapshot bookCacheSnapshot;
+
+  @Scheduled(fixedRateString = "${cache.snapshot.fixedRate}", initialDelayString = "${cache.snapshot.fixedRate}")
+  public void scheduledSnapshot() {
+    bookCacheSnapshot.save();
+  }
+}
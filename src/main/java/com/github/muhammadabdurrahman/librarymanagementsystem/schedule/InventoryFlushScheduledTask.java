@@ -0,0 +1,20 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.schedule;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory.WriteBehindInventory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "inventory.mode", havingValue = "write-behind")
+@RequiredArgsConstructor
+public class InventoryFlushScheduledTask {
+
+  private final WriteBehindInventory writeBehindInventory;
+
+  @Scheduled(fixedDelayString = "${inventory.writeBehind.flushInterval}")
+  public void scheduledFlush() {
+    writeBehindInventory.flush();
+  }
+}
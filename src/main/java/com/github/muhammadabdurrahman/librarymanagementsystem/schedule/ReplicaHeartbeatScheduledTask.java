@@ -0,0 +1,20 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.schedule;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource.ReplicaLagMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaHeartbeatScheduledTask {
+
+  private final ReplicaLagMonitor replicaLagMonitor;
+
+  @Scheduled(fixedDelayString = "${datasource.replica.heartbeatInterval}")
+  public void scheduledHeartbeat() {
+    replicaLagMonitor.check();
+  }
+}
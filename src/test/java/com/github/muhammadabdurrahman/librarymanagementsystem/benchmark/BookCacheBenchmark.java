@@ -0,0 +1,97 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.benchmark;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCacheProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.unit.DataSize;
+
+// Read throughput and latency of BookCache for a single hot ISBN and for a spread of ISBNs. offHeapMultiKey reads through a
+// cache whose on-heap tier only holds a handful of books, so most lookups are answered by the off-heap tier.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BookCacheBenchmark {
+
+  private static final int NUMBER_OF_BOOKS = 1024;
+
+  private static final int ON_HEAP_SIZE_WITH_OFF_HEAP_TIER = 16;
+
+  private BookCache cache;
+  private BookCache offHeapCache;
+  private String[] isbns;
+
+  @Setup
+  public void setUp() {
+    var properties = BookCacheProperties.builder()
+        .maximumSize(NUMBER_OF_BOOKS * 2)
+        .expiryTick(Duration.ofMillis(100))
+        .missingMaximumSize(NUMBER_OF_BOOKS)
+        .missingTtl(Duration.ofSeconds(1))
+        .build();
+    var offHeapProperties = BookCacheProperties.builder()
+        .maximumSize(ON_HEAP_SIZE_WITH_OFF_HEAP_TIER)
+        .expiryTick(Duration.ofMillis(100))
+        .missingMaximumSize(NUMBER_OF_BOOKS)
+        .missingTtl(Duration.ofSeconds(1))
+        .offHeap(new BookCacheProperties.OffHeap(true, 4, DataSize.ofMegabytes(1), Duration.ofHours(1), null))
+        .build();
+    cache = new BookCache(Clock.systemDefaultZone(), properties, isbn -> Optional.empty());
+    offHeapCache = new BookCache(Clock.systemDefaultZone(), offHeapProperties, isbn -> Optional.empty());
+    isbns = new String[NUMBER_OF_BOOKS];
+    for (int i = 0; i < NUMBER_OF_BOOKS; i++) {
+      isbns[i] = "978-0-596-%05d-1".formatted(i);
+      Book book = Book.builder().isbn(isbns[i]).title("title").author("author").publicationYear(2017).availableCopies(5).build();
+      cache.put(isbns[i], book);
+      offHeapCache.put(isbns[i], book);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    offHeapCache.shutdown();
+  }
+
+  @Benchmark
+  public Book singleKey() {
+    return cache.getIfPresent(isbns[0]);
+  }
+
+  @Benchmark
+  public Book multiKey() {
+    return cache.getIfPresent(isbns[ThreadLocalRandom.current().nextInt(NUMBER_OF_BOOKS)]);
+  }
+
+  @Benchmark
+  public Book offHeapMultiKey() {
+    return offHeapCache.getIfPresent(isbns[ThreadLocalRandom.current().nextInt(NUMBER_OF_BOOKS)]);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(BookCacheBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,128 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.benchmark;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.BookEntity;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.mapper.BookEntityMapper;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Latency and allocation of the database reads behind cache misses. The entity variants load managed BookEntity instances and
+// map them to Book, as the read paths used to, in a read-write and in a read-only transaction; the projection variants select
+// straight into Book in a read-only transaction. The gc profiler reports the bytes allocated per operation (gc.alloc.rate.norm).
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookReadPathBenchmark {
+
+  private static final int NUMBER_OF_BOOKS = 1000;
+
+  private static final int BATCH_SIZE = 100;
+
+  private ConfigurableApplicationContext context;
+  private BookJpaRepository repository;
+  private BookEntityMapper mapper;
+  private TransactionTemplate readWrite;
+  private TransactionTemplate readOnly;
+  private List<String> isbns;
+  private List<String> batch;
+
+  @Setup
+  public void setUp() {
+    // Passed as command line arguments, as default properties would be overridden by application.properties
+    context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+        .web(WebApplicationType.NONE)
+        .run(
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;mode=mysql",
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--logging.level.org.hibernate.SQL=OFF",
+            "--logging.level.org.hibernate.type.descriptor.sql=OFF",
+            "--logging.level.com.github.muhammadabdurrahman=INFO");
+    repository = context.getBean(BookJpaRepository.class);
+    mapper = context.getBean(BookEntityMapper.class);
+    PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+
+    List<BookEntity> books = new ArrayList<>(NUMBER_OF_BOOKS);
+    for (int i = 0; i < NUMBER_OF_BOOKS; i++) {
+      books.add(new BookEntity("978-0-596-%05d-1".formatted(i), "title", "author " + i % 10, 2017, 5));
+    }
+    readWrite.executeWithoutResult(status -> repository.persistAll(books));
+    isbns = books.stream().map(BookEntity::getIsbn).toList();
+    batch = isbns.subList(0, BATCH_SIZE);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<Book> singleEntityReadWrite() {
+    String isbn = randomIsbn();
+    return readWrite.execute(status -> repository.findById(isbn).map(mapper::map));
+  }
+
+  @Benchmark
+  public Optional<Book> singleProjectionReadOnly() {
+    String isbn = randomIsbn();
+    return readOnly.execute(status -> repository.findBookByIsbn(isbn));
+  }
+
+  @Benchmark
+  public List<Book> batchEntitiesReadWrite() {
+    return readWrite.execute(status -> mapper.map(repository.findAllById(batch)));
+  }
+
+  @Benchmark
+  public List<Book> batchEntitiesReadOnly() {
+    return readOnly.execute(status -> mapper.map(repository.findAllById(batch)));
+  }
+
+  @Benchmark
+  public List<Book> batchProjectionReadOnly() {
+    return readOnly.execute(status -> repository.findBooksByIsbnIn(batch));
+  }
+
+  private String randomIsbn() {
+    return isbns.get(ThreadLocalRandom.current().nextInt(NUMBER_OF_BOOKS));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(BookReadPathBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
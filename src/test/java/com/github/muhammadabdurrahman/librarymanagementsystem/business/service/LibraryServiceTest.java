@@ -8,10 +8,17 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult.Outcome;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -40,6 +47,19 @@ class LibraryServiceTest {
     verify(bookStore).addBook(book);
   }
 
+  @Test
+  void shouldImportBooks() {
+    // given
+    var books = List.of(mock(Book.class), mock(Book.class));
+    doReturn(Set.of("isbn1")).when(bookStore).addBooks(books);
+
+    // when
+    var actual = underTest.importBooks(books);
+
+    // then
+    assertThat(actual).containsExactly("isbn1");
+  }
+
   @Test
   void shouldRemoveBook() {
     // given
@@ -83,16 +103,57 @@ class LibraryServiceTest {
   void shouldFindBooksByAuthor() {
     // given
     var author = "author";
-    var expected = Arrays.asList(mock(Book.class), mock(Book.class));
-    doReturn(expected).when(bookStore).findBooksByAuthor(author);
+    var expected = new BookPage(Arrays.asList(mock(Book.class), mock(Book.class)), "isbn2");
+    doReturn(expected).when(bookStore).findBooksByAuthor(author, "isbn0", 2);
+
+    // when
+    var actual = underTest.findBooksByAuthor(author, "isbn0", 2);
+
+    // then
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldFindBooks() {
+    // given
+    var expected = new BookPage(Arrays.asList(mock(Book.class), mock(Book.class)), "isbn2");
+    doReturn(expected).when(bookStore).findBooks("isbn0", 2);
+
+    // when
+    var actual = underTest.findBooks("isbn0", 2);
+
+    // then
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldFindBooksByIsbns() {
+    // given
+    var isbns = List.of("isbn1", "isbn2");
+    var expected = Map.of("isbn1", mock(Book.class));
+    doReturn(expected).when(bookStore).findBooksByIsbns(isbns);
 
     // when
-    var actual = underTest.findBooksByAuthor(author);
+    var actual = underTest.findBooksByIsbns(isbns);
 
     // then
     assertThat(actual).isEqualTo(expected);
   }
 
+  @Test
+  void shouldExportBooks() {
+    // given
+    Consumer<Book> action = book -> {
+    };
+    doNothing().when(bookStore).forEachBook(100, action);
+
+    // when
+    underTest.exportBooks(100, action);
+
+    // then
+    verify(bookStore).forEachBook(100, action);
+  }
+
   @Test
   void shouldBorrowBook() {
     // given
@@ -118,4 +179,32 @@ class LibraryServiceTest {
     // then
     verify(bookStore).returnBook(isbn);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldBorrowBooks() {
+    // given
+    var isbns = List.of("isbn1", "isbn2");
+    var expected = List.of(new BatchItemResult("isbn1", Outcome.SUCCEEDED), new BatchItemResult("isbn2", Outcome.BOOK_NOT_FOUND));
+    doReturn(expected).when(bookStore).borrowBooks(isbns);
+
+    // when
+    var actual = underTest.borrowBooks(isbns);
+
+    // then
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldReturnBooks() {
+    // given
+    var isbns = List.of("isbn1", "isbn2");
+    var expected = List.of(new BatchItemResult("isbn1", Outcome.SUCCEEDED), new BatchItemResult("isbn2", Outcome.SUCCEEDED));
+    doReturn(expected).when(bookStore).returnBooks(isbns);
+
+    // when
+    var actual = underTest.returnBooks(isbns);
+
+    // then
+    assertThat(actual).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,70 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect.HeavyHitters.HeavyHitter;
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+
+  @Test
+  void shouldCountKeysExactlyWhileBelowCapacity() {
+    // given
+    var underTest = new HeavyHitters(3, 1);
+
+    // when
+    underTest.add("isbn1");
+    underTest.add("isbn2");
+    underTest.add("isbn1");
+
+    // then
+    assertThat(underTest.top(10)).containsExactly(new HeavyHitter("isbn1", 2, 0), new HeavyHitter("isbn2", 1, 0));
+  }
+
+  @Test
+  void shouldReplaceLeastFrequentKeyWhenFull() {
+    // given
+    var underTest = new HeavyHitters(2, 1);
+    underTest.add("isbn1");
+    underTest.add("isbn1");
+    underTest.add("isbn2");
+
+    // when
+    underTest.add("isbn3");
+
+    // then
+    assertThat(underTest.top(10)).containsExactlyInAnyOrder(new HeavyHitter("isbn1", 2, 0), new HeavyHitter("isbn3", 2, 1));
+  }
+
+  @Test
+  void shouldKeepHeavyHitterAmongManyRareKeys() {
+    // given
+    var underTest = new HeavyHitters(4, 1);
+
+    // when
+    for (int i = 0; i < 100; i++) {
+      underTest.add("hot");
+      underTest.add("rare" + i);
+    }
+
+    // then
+    assertThat(underTest.top(1)).extracting(HeavyHitter::key).containsExactly("hot");
+  }
+
+  @Test
+  void shouldMergeKeysOfAllStripes() {
+    // given
+    var underTest = new HeavyHitters(16, 4);
+
+    // when
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j <= i; j++) {
+        underTest.add("isbn" + i);
+      }
+    }
+
+    // then
+    assertThat(underTest.top(3)).containsExactly(
+        new HeavyHitter("isbn7", 8, 0), new HeavyHitter("isbn6", 7, 0), new HeavyHitter("isbn5", 6, 0));
+  }
+}
@@ -0,0 +1,102 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception.LockLostException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider.LockProvider;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class LeaseFencingTest {
+
+  private final LeaseFencing underTest = new LeaseFencing();
+  private final LockProvider.Lease lease = mock(LockProvider.Lease.class);
+
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    var transactionManager = new DataSourceTransactionManager(dataSource);
+    transactionManager.addListener(underTest);
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    jdbcTemplate.execute("CREATE TABLE books (isbn VARCHAR(255) PRIMARY KEY)");
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.release(lease);
+  }
+
+  @Test
+  void shouldCommitWhileLeaseIsValid() {
+    // given
+    when(lease.isValid()).thenReturn(true);
+    when(lease.fence()).thenReturn(true);
+    underTest.hold("isbn", lease);
+
+    // when
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO books (isbn) VALUES ('isbn')"));
+
+    // then
+    assertThat(books()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRollBackWhenLeaseWasLostBeforeCommit() {
+    // given
+    when(lease.isValid()).thenReturn(false);
+    when(lease.fencingToken()).thenReturn(7L);
+    underTest.hold("isbn", lease);
+
+    // when / then
+    assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+        status -> jdbcTemplate.update("INSERT INTO books (isbn) VALUES ('isbn')")))
+        .isInstanceOf(LockLostException.class)
+        .hasMessageContaining("isbn")
+        .hasMessageContaining("7");
+    assertThat(books()).isZero();
+  }
+
+  @Test
+  void shouldRollBackWhenLeaseWasGrantedAgainBeforeFencing() {
+    // given
+    when(lease.isValid()).thenReturn(true);
+    when(lease.fence()).thenReturn(false);
+    underTest.hold("isbn", lease);
+
+    // when / then
+    assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+        status -> jdbcTemplate.update("INSERT INTO books (isbn) VALUES ('isbn')")))
+        .isInstanceOf(LockLostException.class);
+    assertThat(books()).isZero();
+  }
+
+  @Test
+  void shouldIgnoreLeaseOnceReleased() {
+    // given
+    underTest.hold("isbn", lease);
+    underTest.release(lease);
+
+    // when
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO books (isbn) VALUES ('isbn')"));
+
+    // then
+    assertThat(books()).isEqualTo(1);
+  }
+
+  private int books() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class);
+  }
+}
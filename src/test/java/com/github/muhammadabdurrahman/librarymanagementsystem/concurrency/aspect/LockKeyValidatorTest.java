@@ -0,0 +1,65 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.LockKey;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.SynchronizedByReentrantLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+class LockKeyValidatorTest {
+
+  private final LockKeyValidator underTest = new LockKeyValidator();
+
+  @Test
+  void shouldAcceptMethodWithSingleLockKey() {
+    // given
+    var bean = new ValidBean();
+
+    // when
+    Object actual = underTest.postProcessBeforeInitialization(bean, "validBean");
+
+    // then
+    assertThat(actual).isSameAs(bean);
+    assertThat(LockKeyParameters.indexOf(ValidBean.class.getDeclaredMethods()[0])).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectMethodWithoutLockKey() {
+    // when / then
+    assertThatThrownBy(() -> underTest.postProcessBeforeInitialization(new MissingLockKeyBean(), "missingLockKeyBean"))
+        .isInstanceOf(BeanInitializationException.class)
+        .hasMessageContaining("missingLockKeyBean")
+        .hasRootCauseMessage("No @LockKey parameter on " + MissingLockKeyBean.class.getDeclaredMethods()[0]);
+  }
+
+  @Test
+  void shouldRejectMethodWithMoreThanOneLockKey() {
+    // when / then
+    assertThatThrownBy(() -> underTest.postProcessBeforeInitialization(new DuplicateLockKeyBean(), "duplicateLockKeyBean"))
+        .isInstanceOf(BeanInitializationException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  static class ValidBean {
+
+    @SynchronizedByReentrantLock
+    void borrow(int copies, @LockKey String isbn) {
+    }
+  }
+
+  static class MissingLockKeyBean {
+
+    @SynchronizedByReentrantLock
+    void borrow(String isbn) {
+    }
+  }
+
+  static class DuplicateLockKeyBean {
+
+    @SynchronizedByReentrantLock
+    void borrow(@LockKey String isbn, @LockKey String otherIsbn) {
+    }
+  }
+}
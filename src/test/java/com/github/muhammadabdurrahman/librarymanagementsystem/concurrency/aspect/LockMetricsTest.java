@@ -0,0 +1,52 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LockMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final LockMetrics underTest = new LockMetrics(registry);
+
+  @Test
+  void shouldRegisterMetersOncePerMethod() throws NoSuchMethodException {
+    // given
+    var method = String.class.getMethod("length");
+
+    // when
+    LockMetrics.MethodMeters first = underTest.forMethod(method);
+    LockMetrics.MethodMeters second = underTest.forMethod(method);
+
+    // then
+    assertThat(second).isSameAs(first);
+    assertThat(registry.get("lock.wait").tag("method", "String.length").timer()).isSameAs(first.waitTimer());
+    assertThat(registry.get("lock.waiting").tag("method", "String.length").gauge()).isNotNull();
+  }
+
+  @Test
+  void shouldRecordHoldTimeOnRelease() throws NoSuchMethodException {
+    // given
+    LockMetrics.MethodMeters meters = underTest.forMethod(String.class.getMethod("length"));
+
+    // when
+    underTest.recordRelease(meters, "isbn", true, 1_000L, 2_000_000L);
+
+    // then
+    assertThat(meters.holdTimer().count()).isEqualTo(1);
+    assertThat(meters.holdTimer().totalTime(TimeUnit.NANOSECONDS)).isEqualTo(2_000_000d);
+  }
+
+  @Test
+  void shouldReportMostContendedKeys() {
+    // given
+    underTest.recordContention("isbn1");
+    underTest.recordContention("isbn2");
+    underTest.recordContention("isbn2");
+
+    // when / then
+    assertThat(underTest.topContendedKeys(1)).extracting(HeavyHitters.HeavyHitter::key).containsExactly("isbn2");
+  }
+}
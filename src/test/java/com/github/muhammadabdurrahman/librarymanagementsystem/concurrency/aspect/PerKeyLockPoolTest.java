@@ -0,0 +1,42 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Test;
+
+class PerKeyLockPoolTest {
+
+  private final Object bean = new Object();
+  private final PerKeyLockPool underTest = new PerKeyLockPool(false);
+
+  @Test
+  void shouldKeepLockWhileAnotherCallerStillUsesIt() {
+    // given
+    ReentrantLock holder = underTest.lockFor(bean, "isbn");
+    holder.lock();
+    ReentrantLock waiter = underTest.lockFor(bean, "isbn");
+
+    // when the waiter gives up without having taken the lock
+    underTest.release(bean, "isbn", waiter);
+
+    // then the next caller still gets the lock the holder owns
+    assertThat(underTest.lockFor(bean, "isbn")).isSameAs(holder);
+    holder.unlock();
+  }
+
+  @Test
+  void shouldDropLockOnceLastCallerReleasesIt() {
+    // given
+    ReentrantLock first = underTest.lockFor(bean, "isbn");
+    ReentrantLock second = underTest.lockFor(bean, "isbn");
+
+    // when
+    underTest.release(bean, "isbn", first);
+    underTest.release(bean, "isbn", second);
+
+    // then
+    assertThat(underTest.size(bean)).isZero();
+    assertThat(underTest.lockFor(bean, "isbn")).isNotSameAs(first);
+  }
+}
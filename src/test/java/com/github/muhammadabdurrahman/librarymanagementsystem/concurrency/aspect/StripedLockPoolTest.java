@@ -0,0 +1,44 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.jupiter.api.Test;
+
+class StripedLockPoolTest {
+
+  private final Object bean = new Object();
+
+  @Test
+  void shouldRoundStripesUpToPowerOfTwo() {
+    // given / when
+    var underTest = new StripedLockPool(1000, false);
+
+    // then
+    assertThat(underTest.size()).isEqualTo(1024);
+  }
+
+  @Test
+  void shouldReturnSameLockForSameBeanAndLockKey() {
+    // given
+    var underTest = new StripedLockPool(1024, false);
+
+    // when
+    ReentrantLock first = underTest.lockFor(bean, "isbn");
+    ReentrantLock second = underTest.lockFor(bean, new String("isbn"));
+
+    // then
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void shouldCreateLocksWithConfiguredFairness() {
+    // given / when
+    var fair = new StripedLockPool(16, true);
+    var nonFair = new StripedLockPool(16, false);
+
+    // then
+    assertThat(fair.lockFor(bean, "isbn").isFair()).isTrue();
+    assertThat(nonFair.lockFor(bean, "isbn").isFair()).isFalse();
+  }
+}
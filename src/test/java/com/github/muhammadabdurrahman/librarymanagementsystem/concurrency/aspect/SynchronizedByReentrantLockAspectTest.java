@@ -0,0 +1,192 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.LockKey;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.annotation.SynchronizedByReentrantLock;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.exception.LockTimeoutException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider.JvmLockProvider;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider.LockProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+class SynchronizedByReentrantLockAspectTest {
+
+  private final Target target = new Target();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final SynchronizedByReentrantLockAspect underTest = new SynchronizedByReentrantLockAspect(
+      LockProperties.builder().mode(LockProperties.Mode.PER_KEY).stripes(16).fair(true).build(), new LockMetrics(registry),
+      new JvmLockProvider(), new LeaseFencing());
+
+  @Test
+  void shouldProceedWhenLockIsFree() throws Throwable {
+    // given
+    ProceedingJoinPoint joinPoint = joinPoint("withTimeout", "isbn");
+    when(joinPoint.proceed()).thenReturn("result");
+
+    // when
+    Object actual = underTest.lockByKey(joinPoint, annotation("withTimeout"));
+
+    // then
+    assertThat(actual).isEqualTo("result");
+    assertThat(registry.get("lock.wait").tag("method", "Target.withTimeout").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectWhenLockIsNotAcquiredWithinTimeout() throws Throwable {
+    // given
+    var holding = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ProceedingJoinPoint holder = joinPoint("withoutTimeout", "isbn");
+    when(holder.proceed()).thenAnswer(invocation -> {
+      holding.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    ProceedingJoinPoint waiter = joinPoint("withTimeout", "isbn");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      CompletableFuture<Void> held = CompletableFuture.runAsync(() -> {
+        try {
+          underTest.lockByKey(holder, annotation("withoutTimeout"));
+        } catch (Throwable e) {
+          throw new IllegalStateException(e);
+        }
+      }, executor);
+      assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // when / then
+      assertThatThrownBy(() -> underTest.lockByKey(waiter, annotation("withTimeout")))
+          .isInstanceOf(LockTimeoutException.class)
+          .extracting(e -> ((LockTimeoutException) e).getRetryAfter())
+          .isEqualTo(Duration.ofSeconds(1));
+      assertThat(registry.get("lock.timeouts").tag("method", "Target.withTimeout").counter().count()).isEqualTo(1);
+      release.countDown();
+      held.get(5, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldLockEveryKeyOfCollection() throws Throwable {
+    // given
+    var holding = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ProceedingJoinPoint holder = joinPoint("withoutTimeout", "isbn2");
+    when(holder.proceed()).thenAnswer(invocation -> {
+      holding.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    ProceedingJoinPoint waiter = joinPoint("withTimeout", List.of("isbn3", "isbn1", "isbn2"));
+    ProceedingJoinPoint free = joinPoint("withTimeout", List.of("isbn3", "isbn1"));
+    when(free.proceed()).thenReturn("result");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      CompletableFuture<Void> held = CompletableFuture.runAsync(() -> {
+        try {
+          underTest.lockByKey(holder, annotation("withoutTimeout"));
+        } catch (Throwable e) {
+          throw new IllegalStateException(e);
+        }
+      }, executor);
+      assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // when / then
+      assertThatThrownBy(() -> underTest.lockByKey(waiter, annotation("withTimeout")))
+          .isInstanceOf(LockTimeoutException.class);
+      assertThat(underTest.lockByKey(free, annotation("withTimeout"))).isEqualTo("result");
+      release.countDown();
+      held.get(5, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldUnlockWhenLeaseFailsToRelease() throws Throwable {
+    // given
+    LockProvider.Lease lease = mock(LockProvider.Lease.class);
+    doThrow(new TransientDataAccessResourceException("connection lost")).when(lease).release();
+    LockProvider lockProvider = mock(LockProvider.class);
+    when(lockProvider.tryAcquire(any(), any(), anyLong(), any())).thenReturn(lease, new JvmLockProvider().tryAcquire(target,
+        "isbn", -1, TimeUnit.NANOSECONDS));
+    var aspect = new SynchronizedByReentrantLockAspect(
+        LockProperties.builder().mode(LockProperties.Mode.PER_KEY).stripes(16).fair(true).build(), new LockMetrics(registry),
+        lockProvider, new LeaseFencing());
+    ProceedingJoinPoint first = joinPoint("withTimeout", "isbn");
+    when(first.proceed()).thenReturn("first");
+    ProceedingJoinPoint second = joinPoint("withTimeout", "isbn");
+    when(second.proceed()).thenReturn("second");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      // when
+      assertThat(aspect.lockByKey(first, annotation("withTimeout"))).isEqualTo("first");
+
+      // then another thread can still take the lock
+      assertThat(executor.submit(() -> {
+        try {
+          return aspect.lockByKey(second, annotation("withTimeout"));
+        } catch (Throwable e) {
+          throw new IllegalStateException(e);
+        }
+      }).get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ProceedingJoinPoint joinPoint(String methodName, Object isbn) {
+    ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+    MethodSignature signature = mock(MethodSignature.class);
+    when(joinPoint.getTarget()).thenReturn(target);
+    when(joinPoint.getSignature()).thenReturn(signature);
+    when(joinPoint.getArgs()).thenReturn(new Object[]{isbn});
+    when(signature.getMethod()).thenReturn(method(methodName));
+    return joinPoint;
+  }
+
+  private static SynchronizedByReentrantLock annotation(String methodName) {
+    return method(methodName).getAnnotation(SynchronizedByReentrantLock.class);
+  }
+
+  private static Method method(String methodName) {
+    try {
+      return Target.class.getDeclaredMethod(methodName, String.class);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static class Target {
+
+    @SynchronizedByReentrantLock
+    void withoutTimeout(@LockKey String isbn) {
+    }
+
+    @SynchronizedByReentrantLock(timeout = 50)
+    void withTimeout(@LockKey String isbn) {
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.aspect.LockProperties;
+import com.github.muhammadabdurrahman.librarymanagementsystem.concurrency.provider.LockProvider.Lease;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+// Two providers with their own connections to a shared H2 file database stand in for two instances of the application
+class JdbcLockProviderTest {
+
+  private static final Object BEAN = new Object();
+
+  @TempDir
+  private Path directory;
+
+  private final AtomicLong currentTimeMs = new AtomicLong(1000L);
+  private JdbcLockProvider first;
+  private JdbcLockProvider second;
+
+  @BeforeEach
+  void setUp() {
+    first = provider();
+    second = provider();
+  }
+
+  @AfterEach
+  void tearDown() {
+    first.stop();
+    second.stop();
+  }
+
+  @Test
+  void shouldGrantLeaseToOneInstanceAtATime() throws InterruptedException {
+    // given
+    Lease lease = first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+
+    // when
+    Lease competing = second.tryAcquire(BEAN, "isbn", 100, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(lease).isNotNull();
+    assertThat(lease.fencingToken()).isEqualTo(1);
+    assertThat(competing).isNull();
+    assertThat(second.tryAcquire(BEAN, "other", 0, TimeUnit.MILLISECONDS)).isNotNull();
+  }
+
+  @Test
+  void shouldIssueHigherFencingTokenOnceReleased() throws InterruptedException {
+    // given
+    first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS).release();
+
+    // when
+    Lease lease = second.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(lease.fencingToken()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldTakeOverExpiredLeaseAndInvalidatePreviousHolder() throws InterruptedException {
+    // given
+    Lease expired = first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+    currentTimeMs.addAndGet(1000L);
+
+    // when
+    Lease lease = second.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+    first.renewLeases();
+    expired.release();
+
+    // then
+    assertThat(lease.fencingToken()).isGreaterThan(expired.fencingToken());
+    assertThat(expired.isValid()).isFalse();
+    assertThat(first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test
+  void shouldKeepRenewedLeaseBeyondItsOriginalExpiry() throws InterruptedException {
+    // given
+    Lease lease = first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+    currentTimeMs.addAndGet(900L);
+    first.renewLeases();
+    currentTimeMs.addAndGet(500L);
+
+    // when
+    Lease competing = second.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(competing).isNull();
+    assertThat(lease.isValid()).isTrue();
+  }
+
+  @Test
+  void shouldStopTrustingLeaseNotRenewedWithinSafetyMargin() throws InterruptedException {
+    // given
+    Lease lease = first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+
+    // when
+    currentTimeMs.addAndGet(850L);
+
+    // then the row has not expired yet, but the holder no longer relies on it until it is renewed
+    assertThat(lease.isValid()).isFalse();
+    first.renewLeases();
+    assertThat(lease.isValid()).isTrue();
+  }
+
+  @Test
+  void shouldFenceOnlyLeaseOfCurrentGrant() throws InterruptedException {
+    // given
+    Lease expired = first.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+    currentTimeMs.addAndGet(1000L);
+
+    // when
+    Lease lease = second.tryAcquire(BEAN, "isbn", 0, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(expired.fence()).isFalse();
+    assertThat(lease.fence()).isTrue();
+  }
+
+  // Leases last a second and are trusted for 800 milliseconds; background renewal is pushed out of the way so tests renew explicitly
+  private JdbcLockProvider provider() {
+    var dataSource = new DriverManagerDataSource("jdbc:h2:file:" + directory.resolve("locks").toAbsolutePath(), "sa", "");
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> currentTimeMs.get());
+    var properties = LockProperties.builder()
+        .jdbc(new LockProperties.Jdbc(Duration.ofSeconds(1), Duration.ofHours(1), Duration.ofMillis(10), Duration.ofMillis(200)))
+        .build();
+    var provider = new JdbcLockProvider(new JdbcTemplate(dataSource), clock, properties);
+    provider.start();
+    return provider;
+  }
+}
@@ -0,0 +1,94 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+// The replica is a separate H2 database that does not replicate, so the tests copy the heartbeat to it by hand
+class ReplicaLagMonitorTest {
+
+  private static final long NOW = 10_000L;
+
+  private JdbcTemplate primary;
+  private JdbcTemplate replica;
+  private ReplicaLagMonitor underTest;
+
+  @BeforeEach
+  void setUp() {
+    primary = jdbcTemplate();
+    replica = jdbcTemplate();
+    underTest = new ReplicaLagMonitor(primary, replica, Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC),
+        ReplicaProperties.builder().maximumLag(Duration.ofSeconds(1)).build());
+  }
+
+  @Test
+  void shouldWriteHeartbeatToPrimary() {
+    // when
+    underTest.start();
+
+    // then
+    assertThat(primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class)).isEqualTo(NOW);
+  }
+
+  @Test
+  void shouldUseReplicaWhileLagIsWithinTolerance() {
+    // given
+    underTest.start();
+    replicateHeartbeat(NOW - 300);
+
+    // when
+    underTest.check();
+
+    // then
+    assertThat(underTest.lagMillis()).isEqualTo(300);
+    assertThat(underTest.isReplicaUsable()).isTrue();
+  }
+
+  @Test
+  void shouldNotUseReplicaWhenLagExceedsTolerance() {
+    // given
+    underTest.start();
+    replicateHeartbeat(NOW - 5000);
+
+    // when
+    underTest.check();
+
+    // then
+    assertThat(underTest.lagMillis()).isEqualTo(5000);
+    assertThat(underTest.isReplicaUsable()).isFalse();
+  }
+
+  @Test
+  void shouldNotUseReplicaWhenHeartbeatCannotBeRead() {
+    // when
+    underTest.start();
+
+    // then
+    assertThat(underTest.lagMillis()).isNaN();
+    assertThat(underTest.isReplicaUsable()).isFalse();
+  }
+
+  @Test
+  void shouldNotUseReplicaBeforeFirstCheck() {
+    assertThat(underTest.isReplicaUsable()).isFalse();
+  }
+
+  private void replicateHeartbeat(long beatAt) {
+    replica.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    replica.update("DELETE FROM replica_heartbeat");
+    replica.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", beatAt);
+  }
+
+  private static JdbcTemplate jdbcTemplate() {
+    return new JdbcTemplate(
+        new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+  }
+}
@@ -0,0 +1,94 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+
+  private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readWrite;
+  private TransactionTemplate readOnly;
+
+  @BeforeEach
+  void setUp() {
+    DataSource underTest = new LazyConnectionDataSourceProxy(
+        new ReplicaRoutingDataSource(database("primary"), database("replica"), replicaUsable::get));
+    jdbcTemplate = new JdbcTemplate(underTest);
+    var transactionManager = new DataSourceTransactionManager(underTest);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  @Test
+  void shouldSendReadOnlyTransactionsToReplica() {
+    // when
+    String database = readOnly.execute(status -> currentDatabase());
+
+    // then
+    assertThat(database).isEqualTo("replica");
+  }
+
+  @Test
+  void shouldSendReadWriteTransactionsToPrimary() {
+    // when
+    String database = readWrite.execute(status -> currentDatabase());
+
+    // then
+    assertThat(database).isEqualTo("primary");
+  }
+
+  @Test
+  void shouldSendStatementsOutsideTransactionsToPrimary() {
+    // when
+    String database = currentDatabase();
+
+    // then
+    assertThat(database).isEqualTo("primary");
+  }
+
+  @Test
+  void shouldSendReadOnlyTransactionsToPrimaryWhileReplicaIsNotUsable() {
+    // given
+    replicaUsable.set(false);
+
+    // when
+    String database = readOnly.execute(status -> currentDatabase());
+
+    // then
+    assertThat(database).isEqualTo("primary");
+  }
+
+  @Test
+  void shouldSendReadOnlyTransactionsRequiringPrimaryToPrimary() {
+    // when
+    String database = readOnly.execute(status -> PrimaryReads.call(this::currentDatabase));
+
+    // then
+    assertThat(database).isEqualTo("primary");
+  }
+
+  private String currentDatabase() {
+    return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+  }
+
+  private static DataSource database(String name) {
+    var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE TABLE origin (name VARCHAR(255) NOT NULL)");
+    jdbcTemplate.update("INSERT INTO origin (name) VALUES (?)", name);
+    return dataSource;
+  }
+}
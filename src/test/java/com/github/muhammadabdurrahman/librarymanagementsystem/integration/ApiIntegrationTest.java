@@ -76,8 +76,44 @@ class ApiIntegrationTest {
   void should_find_books_by_author() throws Exception {
     mockMvc.perform(get("/api/v1/books/author/{author}", "Muhammad Abdurrahman"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$[0].author").value("Muhammad Abdurrahman"))
-        .andExpect(jsonPath("$[1].author").value("Muhammad Abdurrahman"));
+        .andExpect(jsonPath("$.books[0].author").value("Muhammad Abdurrahman"))
+        .andExpect(jsonPath("$.books[1].author").value("Muhammad Abdurrahman"));
+  }
+
+  @Test
+  void should_page_through_books_by_author() throws Exception {
+    String firstPage = mockMvc.perform(get("/api/v1/books/author/{author}", "Muhammad Abdurrahman").param("pageSize", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.books.length()").value(2))
+        .andExpect(jsonPath("$.books[0].isbn").value("978-0-596-52068-1"))
+        .andExpect(jsonPath("$.books[1].isbn").value("978-0-596-52068-5"))
+        .andReturn().getResponse().getContentAsString();
+    String pageToken = objectMapper.readTree(firstPage).get("nextPageToken").asText();
+
+    mockMvc.perform(get("/api/v1/books/author/{author}", "Muhammad Abdurrahman")
+            .param("pageSize", "2")
+            .param("pageToken", pageToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.books.length()").value(1))
+        .andExpect(jsonPath("$.books[0].isbn").value("978-0-596-52068-6"))
+        .andExpect(jsonPath("$.nextPageToken").doesNotExist());
+  }
+
+  @Test
+  void should_list_books_in_isbn_order() throws Exception {
+    mockMvc.perform(get("/api/v1/books").param("pageSize", "4"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.books.length()").value(4))
+        .andExpect(jsonPath("$.books[0].isbn").value("978-0-596-52068-1"))
+        .andExpect(jsonPath("$.books[3].isbn").value("978-0-596-52068-4"))
+        .andExpect(jsonPath("$.nextPageToken").exists());
+  }
+
+  @Test
+  void should_reject_page_size_above_cap() throws Exception {
+    mockMvc.perform(get("/api/v1/books").param("pageSize", "101"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.detail").value(containsString("[parameter: pageSize")));
   }
 
   @Test
@@ -0,0 +1,9 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the concurrency scenarios with leases from the distributed_locks table, fenced within each borrow and return transaction
+@TestPropertySource(properties = "lock.provider=jdbc")
+class JdbcLockConcurrencyIntegrationTest extends ConcurrencyIntegrationTest {
+
+}
@@ -0,0 +1,83 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// Calls the store through its Spring proxy, so the lock aspect runs together with the transaction advisor
+@SpringBootTest
+@Sql(scripts = "/test-data.sql")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LockAspectIntegrationTest {
+
+  private static final String BORROW_METHOD = "BookStoreImpl.borrowBook";
+
+  @Autowired
+  private BookStore bookStore;
+
+  @Autowired
+  private MeterRegistry registry;
+
+  @Autowired
+  private HoldCountAtCommit holdCountAtCommit;
+
+  @Test
+  void should_lock_when_called_through_proxy() {
+    assertThat(AopUtils.isAopProxy(bookStore)).isTrue();
+
+    bookStore.borrowBook("978-0-596-52068-1");
+    bookStore.borrowBooks(List.of("978-0-596-52068-2", "978-0-596-52068-3"));
+
+    assertThat(registry.get("lock.hold").tag("method", BORROW_METHOD).timer().count()).isEqualTo(1);
+    assertThat(registry.get("lock.hold").tag("method", "BookStoreImpl.borrowBooks").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void should_hold_lock_until_transaction_commits() {
+    bookStore.borrowBook("978-0-596-52068-1");
+
+    // The lock is released, and its hold time recorded, only after the transaction has committed
+    assertThat(holdCountAtCommit.count.get()).isZero();
+    assertThat(registry.get("lock.hold").tag("method", BORROW_METHOD).timer().count()).isEqualTo(1);
+  }
+
+  @TestConfiguration
+  static class Config {
+
+    @Bean
+    HoldCountAtCommit holdCountAtCommit(MeterRegistry registry) {
+      return new HoldCountAtCommit(registry);
+    }
+  }
+
+  // Records how many borrowBook locks had been released when the last transaction committed
+  static class HoldCountAtCommit implements TransactionExecutionListener {
+
+    private final MeterRegistry registry;
+    private final AtomicLong count = new AtomicLong(-1);
+
+    HoldCountAtCommit(MeterRegistry registry) {
+      this.registry = registry;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+      Timer hold = registry.find("lock.hold").tag("method", BORROW_METHOD).timer();
+      count.set(hold == null ? 0 : hold.count());
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the concurrency scenarios against the conditional-update borrow/return mode
+@TestPropertySource(properties = "inventory.mode=optimistic")
+class OptimisticConcurrencyIntegrationTest extends ConcurrencyIntegrationTest {
+
+}
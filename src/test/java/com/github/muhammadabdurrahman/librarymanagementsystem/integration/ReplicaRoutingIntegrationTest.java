@@ -0,0 +1,103 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.store.BookStore;
+import com.github.muhammadabdurrahman.librarymanagementsystem.configuration.datasource.ReplicaLagMonitor;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.AuthorIndex;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Clock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+// Runs the store through the application's transaction manager against a replica that lags behind the primary: it is missing
+// one book and holds an older copy of another
+@SpringBootTest
+@TestPropertySource(properties = {
+    "datasource.replica.enabled=true",
+    "datasource.replica.url=jdbc:h2:mem:librarymanagement-replica-test;mode=mysql",
+    "datasource.replica.maximumLag=1h"
+})
+@Sql(scripts = "/test-data.sql")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReplicaRoutingIntegrationTest {
+
+  private static final String AUTHOR = "Muhammad Abdurrahman";
+  private static final String STALE_ISBN = "978-0-596-52068-1";
+  private static final String UNREPLICATED_ISBN = "978-0-596-52068-5";
+
+  @Autowired
+  private BookStore bookStore;
+
+  @Autowired
+  private BookCache cache;
+
+  @Autowired
+  private AuthorIndex authorIndex;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private HikariDataSource replicaDataSource;
+
+  @Autowired
+  private ReplicaLagMonitor replicaLagMonitor;
+
+  @Autowired
+  private Clock clock;
+
+  @BeforeEach
+  void setUp() {
+    var replica = new JdbcTemplate(replicaDataSource);
+    replica.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    replica.update("MERGE INTO replica_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)", clock.millis());
+    replica.execute("CREATE TABLE IF NOT EXISTS books (isbn VARCHAR(255) PRIMARY KEY, title VARCHAR(255) NOT NULL, "
+        + "author VARCHAR(255) NOT NULL, publication_year INT NOT NULL, available_copies INT NOT NULL)");
+    replica.update("DELETE FROM books");
+    replica.update("INSERT INTO books (isbn, title, author, publication_year, available_copies) VALUES "
+        + "('978-0-596-52068-1', 'Book 1', 'Muhammad Abdurrahman', 2005, 3), "
+        + "('978-0-596-52068-6', 'Book 6', 'Muhammad Abdurrahman', 2008, 0)");
+    replicaLagMonitor.check();
+  }
+
+  @Test
+  void shouldServeCatalogPagesFromReplica() {
+    // when
+    var page = bookStore.findBooks(null, 10);
+
+    // then
+    assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+    assertThat(page.books()).extracting(Book::getIsbn).containsExactly(STALE_ISBN, "978-0-596-52068-6");
+  }
+
+  @Test
+  void shouldCacheBooksReadFromPrimary() {
+    // when
+    var stale = bookStore.findBookByIsbn(STALE_ISBN);
+    var unreplicated = bookStore.findBookByIsbn(UNREPLICATED_ISBN);
+
+    // then
+    assertThat(stale).map(Book::getAvailableCopies).contains(10);
+    assertThat(cache.getIfPresent(STALE_ISBN).getAvailableCopies()).isEqualTo(10);
+    assertThat(unreplicated).isPresent();
+    assertThat(cache.isKnownMissing(UNREPLICATED_ISBN)).isFalse();
+  }
+
+  @Test
+  void shouldIndexAuthorFromPrimary() {
+    // when
+    var page = bookStore.findBooksByAuthor(AUTHOR, null, 10);
+
+    // then
+    assertThat(page.books()).extracting(Book::getIsbn).contains(UNREPLICATED_ISBN);
+    assertThat(authorIndex.get(AUTHOR)).contains(UNREPLICATED_ISBN);
+  }
+}
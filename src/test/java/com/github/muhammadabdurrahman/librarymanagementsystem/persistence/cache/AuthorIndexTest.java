@@ -0,0 +1,89 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthorIndexTest {
+
+  private AuthorIndex underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new AuthorIndex(BookCacheProperties.builder().authorIndexMaximumSize(2).build());
+  }
+
+  @Test
+  void shouldReturnNullForAuthorNotIndexed() {
+    // when / then
+    assertThat(underTest.get("author")).isNull();
+  }
+
+  @Test
+  void shouldReturnIndexedIsbns() {
+    // given
+    long generation = underTest.generation("author");
+
+    // when
+    underTest.put("author", List.of("isbn2", "isbn1"), generation);
+
+    // then
+    assertThat(underTest.get("author")).containsExactly("isbn1", "isbn2");
+  }
+
+  @Test
+  void shouldNotStoreLoadThatRacedWithAddedBook() {
+    // given
+    long generation = underTest.generation("author");
+    underTest.addIsbn("author", "isbn3");
+
+    // when
+    underTest.put("author", List.of("isbn1", "isbn2"), generation);
+
+    // then
+    assertThat(underTest.get("author")).isNull();
+  }
+
+  @Test
+  void shouldNotStoreLoadThatRacedWithRemovedBook() {
+    // given
+    long generation = underTest.generation("author");
+    underTest.removeIsbn("author", "isbn2");
+
+    // when
+    underTest.put("author", List.of("isbn1", "isbn2"), generation);
+
+    // then
+    assertThat(underTest.get("author")).isNull();
+  }
+
+  @Test
+  void shouldAddAndRemoveIsbnOfIndexedAuthor() {
+    // given
+    underTest.put("author", List.of("isbn1"), underTest.generation("author"));
+
+    // when
+    underTest.addIsbn("author", "isbn2");
+    underTest.removeIsbn("author", "isbn1");
+
+    // then
+    assertThat(underTest.get("author")).containsExactly("isbn2");
+  }
+
+  @Test
+  void shouldEvictOldestAuthorWhenFull() {
+    // given
+    underTest.put("author1", List.of("isbn1"), underTest.generation("author1"));
+    underTest.put("author2", List.of("isbn2"), underTest.generation("author2"));
+
+    // when
+    underTest.put("author3", List.of("isbn3"), underTest.generation("author3"));
+
+    // then
+    assertThat(underTest.size()).isEqualTo(2);
+    assertThat(underTest.get("author1")).isNull();
+    assertThat(underTest.get("author3")).containsExactly("isbn3");
+  }
+}
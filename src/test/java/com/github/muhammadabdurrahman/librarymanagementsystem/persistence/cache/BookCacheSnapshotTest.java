@@ -0,0 +1,167 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookCacheSnapshotTest {
+
+  private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC);
+
+  @TempDir
+  private Path directory;
+
+  @Mock
+  private BookRefreshLoader loader;
+
+  private BookCache cache;
+  private BookCacheSnapshot underTest;
+
+  @BeforeEach
+  void setUp() {
+    cache = new BookCache(CLOCK, properties(true), loader);
+    underTest = new BookCacheSnapshot(cache, loader, properties(true));
+  }
+
+  @Test
+  void shouldRestoreSavedBooksIntoEmptyCache() {
+    // given
+    var book = book("isbn1", 5);
+    var bookWithoutYear = Book.builder().isbn("isbn2").title("title").author("author").availableCopies(1).build();
+    cache.put("isbn1", book);
+    cache.put("isbn2", bookWithoutYear);
+    underTest.save();
+    var restartedCache = new BookCache(CLOCK, properties(true), loader);
+
+    // when
+    List<Book> restored = new BookCacheSnapshot(restartedCache, loader, properties(true)).restore();
+
+    // then
+    assertThat(restored).containsExactlyInAnyOrder(book, bookWithoutYear);
+    assertThat(restartedCache.get("isbn1")).contains(book);
+    assertThat(restartedCache.get("isbn2")).contains(bookWithoutYear);
+  }
+
+  @Test
+  void shouldKeepRestoredBooksForSnapshotTtl() {
+    // given
+    var book = book("isbn", 5);
+    cache.put("isbn", book);
+    underTest.save();
+    var now = new AtomicLong(1000L);
+    var clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> now.get());
+    var restartedCache = new BookCache(clock, properties(true), loader);
+    new BookCacheSnapshot(restartedCache, loader, properties(true)).restore();
+
+    // when
+    now.addAndGet(Duration.ofSeconds(30).toMillis());
+    restartedCache.evictStaleBooks();
+    var afterCacheTtl = restartedCache.getIfPresent("isbn");
+    now.addAndGet(Duration.ofSeconds(31).toMillis());
+    restartedCache.evictStaleBooks();
+    var afterSnapshotTtl = restartedCache.getIfPresent("isbn");
+
+    // then
+    assertThat(afterCacheTtl).isEqualTo(book);
+    assertThat(afterSnapshotTtl).isNull();
+  }
+
+  @Test
+  void shouldReplaceChangedAndDropDeletedBooksWhenValidating() {
+    // given
+    var unchanged = book("isbn1", 5);
+    var changed = book("isbn2", 5);
+    var deleted = book("isbn3", 5);
+    var current = book("isbn2", 4);
+    List.of(unchanged, changed, deleted).forEach(book -> cache.put(book.getIsbn(), book));
+    when(loader.loadAll(List.of("isbn1", "isbn2", "isbn3"))).thenReturn(List.of(book("isbn1", 5), current));
+
+    // when
+    underTest.validate(List.of(unchanged, changed, deleted));
+
+    // then
+    assertThat(cache.getIfPresent("isbn1")).isSameAs(unchanged);
+    assertThat(cache.get("isbn2")).contains(current);
+    assertThat(cache.get("isbn3")).isNotPresent();
+  }
+
+  @Test
+  void shouldNotOverwriteNewerWriteWhenValidating() {
+    // given
+    var restored = book("isbn", 5);
+    var newer = book("isbn", 3);
+    cache.put("isbn", newer);
+    when(loader.loadAll(List.of("isbn"))).thenReturn(List.of(book("isbn", 4)));
+
+    // when
+    underTest.validate(List.of(restored));
+
+    // then
+    assertThat(cache.getIfPresent("isbn")).isSameAs(newer);
+  }
+
+  @Test
+  void shouldIgnoreSnapshotWithUnknownFormat() throws IOException {
+    // given
+    Files.writeString(directory.resolve("books.snapshot"), "not a snapshot");
+
+    // when
+    List<Book> restored = underTest.restore();
+
+    // then
+    assertThat(restored).isEmpty();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void shouldNotWriteSnapshotWhenDisabled() {
+    // given
+    cache.put("isbn", book("isbn", 5));
+
+    // when
+    new BookCacheSnapshot(cache, loader, properties(false)).save();
+
+    // then
+    assertThat(directory.resolve("books.snapshot")).doesNotExist();
+  }
+
+  private BookCacheProperties properties(boolean snapshotEnabled) {
+    return BookCacheProperties.builder()
+        .maximumSize(100)
+        .expiryTick(Duration.ofMillis(100))
+        .missingMaximumSize(100)
+        .missingTtl(Duration.ofSeconds(1))
+        .snapshot(new BookCacheProperties.Snapshot(snapshotEnabled, directory.resolve("books.snapshot"), 100, 100,
+            Duration.ofMinutes(1)))
+        .build();
+  }
+
+  private static Book book(String isbn, int availableCopies) {
+    return Book.builder()
+        .isbn(isbn)
+        .title("title")
+        .author("author")
+        .publicationYear(2017)
+        .availableCopies(availableCopies)
+        .build();
+  }
+}
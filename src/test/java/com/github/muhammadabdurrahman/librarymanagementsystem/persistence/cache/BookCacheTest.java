@@ -1,18 +1,30 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 
 @ExtendWith(MockitoExtension.class)
 class BookCacheTest {
@@ -20,17 +32,22 @@ class BookCacheTest {
   @Mock
   private Clock clock;
 
-  @InjectMocks
+  @Mock
+  private BookRefreshLoader refreshLoader;
+
   private BookCache underTest;
 
+  @BeforeEach
+  void setUp() {
+    underTest = new BookCache(clock, properties(100), refreshLoader);
+  }
 
   @Test
   void shouldReturnBookWhenPresentAndNotExpired() {
     // given
     var isbn = "isbn";
     var book = mock(Book.class);
-    when(clock.millis()).thenReturn(1000L).thenReturn(1001L);
-    when(clock.instant()).thenReturn(Instant.ofEpochMilli(1000L)).thenReturn(Instant.ofEpochMilli(1001L));
+    when(clock.millis()).thenReturn(1000L);
     underTest.put(isbn, book);
 
     // when
@@ -57,9 +74,9 @@ class BookCacheTest {
     // given
     var isbn = "isbn";
     var book = mock(Book.class);
-    when(clock.millis()).thenReturn(5000L);
-    when(clock.instant()).thenReturn(Instant.ofEpochMilli(1000L));
+    when(clock.millis()).thenReturn(1000L).thenReturn(5000L);
     underTest.put(isbn, book);
+    underTest.put("other", mock(Book.class));
 
     // when
     Optional<Book> result = underTest.get(isbn);
@@ -68,12 +85,40 @@ class BookCacheTest {
     assertThat(result).isNotPresent();
   }
 
+  @Test
+  void shouldReturnOnlyHitsFromGetAllPresent() {
+    // given
+    var book1 = book("isbn1");
+    var book2 = book("isbn2");
+    when(clock.millis()).thenReturn(1000L);
+    underTest.putAll(List.of(book1, book2));
+
+    // when
+    Map<String, Book> result = underTest.getAllPresent(List.of("isbn1", "isbn2", "isbn3"));
+
+    // then
+    assertThat(result).isEqualTo(Map.of("isbn1", book1, "isbn2", book2));
+    assertThat(underTest.size()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReturnNullFromGetIfPresentWhenBookNotPresent() {
+    // given
+    var isbn = "isbn";
+
+    // when
+    Book result = underTest.getIfPresent(isbn);
+
+    // then
+    assertThat(result).isNull();
+  }
+
   @Test
   void shouldRemoveBookFromCache() {
     // given
     var isbn = "isbn";
     var book = mock(Book.class);
-    when(clock.instant()).thenReturn(Instant.ofEpochMilli(1000L));
+    when(clock.millis()).thenReturn(1000L);
     underTest.put(isbn, book);
 
     // when
@@ -91,8 +136,7 @@ class BookCacheTest {
     var isbn2 = "isbn2";
     var book1 = mock(Book.class);
     var book2 = mock(Book.class);
-    when(clock.millis()).thenReturn(3500L);
-    when(clock.instant()).thenReturn(Instant.ofEpochMilli(1000L)).thenReturn(Instant.ofEpochMilli(2000L));
+    when(clock.millis()).thenReturn(1000L).thenReturn(2000L).thenReturn(3500L);
     underTest.put(isbn1, book1);
     underTest.put(isbn2, book2);
 
@@ -104,19 +148,21 @@ class BookCacheTest {
     // then
     assertThat(result1).isNotPresent();
     assertThat(result2).isPresent().contains(book2);
+    assertThat(underTest.size()).isEqualTo(1);
   }
 
   @Test
-  void shouldRefreshTtlWhenBookAccessed() {
+  void shouldRefreshTtlWhenBookAccessedCloseToExpiry() {
     // given
     var isbn = "isbn";
     var book = mock(Book.class);
-    when(clock.millis()).thenReturn(1000L).thenReturn(2000L);
-    when(clock.instant()).thenReturn(Instant.ofEpochMilli(1000L)).thenReturn(Instant.ofEpochMilli(1001L));
+    when(clock.millis()).thenReturn(1000L).thenReturn(2500L).thenReturn(4000L);
     underTest.put(isbn, book);
+    underTest.put("other1", mock(Book.class));
 
     // Access the book to refresh TTL
     underTest.get(isbn);
+    underTest.put("other2", mock(Book.class));
 
     // when
     Optional<Book> result = underTest.get(isbn);
@@ -124,4 +170,291 @@ class BookCacheTest {
     // then
     assertThat(result).isPresent().contains(book);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldNotRefreshTtlWhenMoreThanThresholdRemains() {
+    // given
+    var isbn = "isbn";
+    var book = mock(Book.class);
+    when(clock.millis()).thenReturn(1000L).thenReturn(1500L).thenReturn(3000L);
+    underTest.put(isbn, book);
+    underTest.put("other1", mock(Book.class));
+
+    // Access the book while more than the refresh threshold remains
+    underTest.get(isbn);
+    underTest.put("other2", mock(Book.class));
+
+    // when
+    Optional<Book> result = underTest.get(isbn);
+
+    // then
+    assertThat(result).isNotPresent();
+  }
+
+  @Test
+  void shouldNotExceedMaximumSize() {
+    // given
+    var boundedCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), properties(2), refreshLoader);
+
+    // when
+    boundedCache.put("isbn1", mock(Book.class));
+    boundedCache.put("isbn2", mock(Book.class));
+    boundedCache.put("isbn3", mock(Book.class));
+
+    // then
+    assertThat(boundedCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldKeepFrequentlyAccessedBookWhenOneHitBooksAreAdded() {
+    // given
+    var boundedCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), properties(2), refreshLoader);
+    var hotBook = mock(Book.class);
+    boundedCache.put("hot", hotBook);
+    boundedCache.put("warm", mock(Book.class));
+    for (int i = 0; i < 5; i++) {
+      boundedCache.get("hot");
+    }
+
+    // when
+    for (int i = 0; i < 20; i++) {
+      boundedCache.put("one-hit-" + i, mock(Book.class));
+    }
+
+    // then
+    assertThat(boundedCache.size()).isEqualTo(2);
+    assertThat(boundedCache.get("hot")).isPresent().contains(hotBook);
+  }
+
+  @Test
+  void shouldAdmitBookThatIsRequestedMoreOftenThanEvictionCandidate() {
+    // given
+    var boundedCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), properties(1), refreshLoader);
+    var popularBook = mock(Book.class);
+    boundedCache.put("cold", mock(Book.class));
+    for (int i = 0; i < 5; i++) {
+      boundedCache.get("popular");
+    }
+
+    // when
+    boundedCache.put("popular", popularBook);
+
+    // then
+    assertThat(boundedCache.get("popular")).isPresent().contains(popularBook);
+    assertThat(boundedCache.get("cold")).isNotPresent();
+  }
+
+  @Test
+  void shouldRememberMissingIsbnUntilTtlPasses() {
+    // given
+    var isbn = "isbn";
+    when(clock.millis()).thenReturn(1000L).thenReturn(1500L).thenReturn(2000L);
+    underTest.putMissing(isbn);
+
+    // when
+    underTest.put("other1", mock(Book.class));
+    boolean missingBeforeTtl = underTest.isKnownMissing(isbn);
+    underTest.put("other2", mock(Book.class));
+    boolean missingAfterTtl = underTest.isKnownMissing(isbn);
+
+    // then
+    assertThat(missingBeforeTtl).isTrue();
+    assertThat(missingAfterTtl).isFalse();
+  }
+
+  @Test
+  void shouldForgetMissingIsbnWhenRemoved() {
+    // given
+    var isbn = "isbn";
+    when(clock.millis()).thenReturn(1000L);
+    underTest.putMissing(isbn);
+
+    // when
+    underTest.removeMissing(isbn);
+
+    // then
+    assertThat(underTest.isKnownMissing(isbn)).isFalse();
+  }
+
+  @Test
+  void shouldEvictExpiredMissingIsbns() {
+    // given
+    when(clock.millis()).thenReturn(1000L).thenReturn(2500L);
+    underTest.putMissing("isbn");
+
+    // when
+    underTest.evictStaleBooks();
+
+    // then
+    assertThat(underTest.missingSize()).isZero();
+  }
+
+  @Test
+  void shouldServeStaleBookAndRefreshItInBackgroundOncePastSoftTtl() {
+    // given
+    var isbn = "isbn";
+    var staleBook = mock(Book.class);
+    var refreshedBook = mock(Book.class);
+    var currentTimeMs = new AtomicLong(1000L);
+    when(clock.millis()).thenAnswer(invocation -> currentTimeMs.get());
+    when(refreshLoader.load(isbn)).thenReturn(Optional.of(refreshedBook));
+    var refreshAheadCache = new BookCache(clock, refreshAheadProperties(), refreshLoader);
+    refreshAheadCache.put(isbn, staleBook);
+    currentTimeMs.set(2500L);
+    refreshAheadCache.evictStaleBooks();
+
+    try {
+      // when
+      Optional<Book> result = refreshAheadCache.get(isbn);
+
+      // then
+      assertThat(result).isPresent().contains(staleBook);
+      await(() -> refreshAheadCache.get(isbn).filter(refreshedBook::equals).isPresent());
+      verify(refreshLoader).load(isbn);
+    } finally {
+      refreshAheadCache.shutdown();
+    }
+  }
+
+  @Test
+  void shouldDropBookOncePastHardTtlInRefreshAheadMode() {
+    // given
+    var isbn = "isbn";
+    var currentTimeMs = new AtomicLong(1000L);
+    when(clock.millis()).thenAnswer(invocation -> currentTimeMs.get());
+    var refreshAheadCache = new BookCache(clock, refreshAheadProperties(), refreshLoader);
+    refreshAheadCache.put(isbn, mock(Book.class));
+    currentTimeMs.set(6000L);
+
+    try {
+      // when
+      refreshAheadCache.evictStaleBooks();
+
+      // then
+      assertThat(refreshAheadCache.get(isbn)).isNotPresent();
+      verify(refreshLoader, never()).load(any());
+    } finally {
+      refreshAheadCache.shutdown();
+    }
+  }
+
+  @Test
+  void shouldServeBookMissingFromHeapFromOffHeapTier() {
+    // given
+    var book = book("isbn2");
+    var offHeapCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), offHeapProperties(1), refreshLoader);
+    offHeapCache.put("isbn1", book("isbn1"));
+    offHeapCache.put("isbn2", book);
+
+    try {
+      // when
+      Optional<Book> result = offHeapCache.get("isbn2");
+
+      // then
+      assertThat(result).isPresent().contains(book);
+      assertThat(offHeapCache.offHeapSize()).isEqualTo(2);
+    } finally {
+      offHeapCache.shutdown();
+    }
+  }
+
+  @Test
+  void shouldRemoveBookFromBothTiers() {
+    // given
+    var offHeapCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), offHeapProperties(100), refreshLoader);
+    offHeapCache.put("isbn", book("isbn"));
+
+    try {
+      // when
+      offHeapCache.remove("isbn");
+
+      // then
+      assertThat(offHeapCache.get("isbn")).isNotPresent();
+      assertThat(offHeapCache.offHeapSize()).isZero();
+    } finally {
+      offHeapCache.shutdown();
+    }
+  }
+
+  @Test
+  void shouldRecordLookupLatencyPerTier() {
+    // given
+    var registry = new SimpleMeterRegistry();
+    var offHeapCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), offHeapProperties(1), refreshLoader);
+    new BookCacheMetrics(offHeapCache).bindTo(registry);
+    offHeapCache.put("isbn1", book("isbn1"));
+    offHeapCache.put("isbn2", book("isbn2"));
+
+    try {
+      // when
+      offHeapCache.get("isbn2");
+      offHeapCache.get("isbn3");
+
+      // then
+      // isbn2 was not admitted to the single on-heap slot, so both lookups reach the off-heap tier
+      assertThat(registry.get("book.cache.lookup").tag("tier", "heap").timer().count()).isEqualTo(2);
+      assertThat(registry.get("book.cache.lookup").tag("tier", "offheap").timer().count()).isEqualTo(2);
+    } finally {
+      offHeapCache.shutdown();
+    }
+  }
+
+  @Test
+  void shouldMissBothTiersWithoutPromoting() {
+    // given
+    var offHeapCache = new BookCache(Clock.fixed(Instant.ofEpochMilli(1000L), ZoneOffset.UTC), offHeapProperties(100), refreshLoader);
+    offHeapCache.put("isbn1", book("isbn1"));
+
+    try {
+      // when
+      Optional<Book> result = offHeapCache.get("isbn2");
+
+      // then
+      assertThat(result).isNotPresent();
+      assertThat(offHeapCache.size()).isEqualTo(1);
+    } finally {
+      offHeapCache.shutdown();
+    }
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met within 5 seconds").isLessThan(deadline);
+      Thread.onSpinWait();
+    }
+  }
+
+  private static BookCacheProperties properties(int maximumSize) {
+    return BookCacheProperties.builder()
+        .maximumSize(maximumSize)
+        .expiryTick(Duration.ofMillis(100))
+        .missingMaximumSize(100)
+        .missingTtl(Duration.ofSeconds(1))
+        .build();
+  }
+
+  private static BookCacheProperties refreshAheadProperties() {
+    return BookCacheProperties.builder()
+        .maximumSize(100)
+        .expiryTick(Duration.ofMillis(100))
+        .missingMaximumSize(100)
+        .missingTtl(Duration.ofSeconds(1))
+        .refreshAhead(new BookCacheProperties.RefreshAhead(true, Duration.ofSeconds(1), Duration.ofSeconds(5), 1, 10))
+        .build();
+  }
+
+  private static BookCacheProperties offHeapProperties(int maximumSize) {
+    return BookCacheProperties.builder()
+        .maximumSize(maximumSize)
+        .expiryTick(Duration.ofMillis(100))
+        .missingMaximumSize(100)
+        .missingTtl(Duration.ofSeconds(1))
+        .offHeap(new BookCacheProperties.OffHeap(true, 2, DataSize.ofKilobytes(1), Duration.ofSeconds(10), null))
+        .build();
+  }
+
+  private static Book book(String isbn) {
+    return Book.builder().isbn(isbn).title("title").author("author").publicationYear(2017).availableCopies(5).build();
+  }
+}
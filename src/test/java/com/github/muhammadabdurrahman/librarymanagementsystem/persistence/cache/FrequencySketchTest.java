@@ -0,0 +1,64 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+  @Test
+  void shouldEstimateZeroForUnseenKey() {
+    // given
+    var underTest = new FrequencySketch(64);
+
+    // when
+    int actual = underTest.frequency("isbn");
+
+    // then
+    assertThat(actual).isZero();
+  }
+
+  @Test
+  void shouldCountIncrements() {
+    // given
+    var underTest = new FrequencySketch(64);
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      underTest.increment("isbn");
+    }
+
+    // then
+    assertThat(underTest.frequency("isbn")).isEqualTo(5);
+  }
+
+  @Test
+  void shouldSaturateAtFifteen() {
+    // given
+    var underTest = new FrequencySketch(64);
+
+    // when
+    for (int i = 0; i < 20; i++) {
+      underTest.increment("isbn");
+    }
+
+    // then
+    assertThat(underTest.frequency("isbn")).isEqualTo(15);
+  }
+
+  @Test
+  void shouldHalveCountersOnceSampleSizeIsReached() {
+    // given
+    var underTest = new FrequencySketch(1);
+    for (int i = 0; i < 8; i++) {
+      underTest.increment("isbn");
+    }
+
+    // when
+    underTest.increment("other");
+    underTest.increment("other");
+
+    // then
+    assertThat(underTest.frequency("isbn")).isLessThan(8);
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MissingIsbnCacheTest {
+
+  private MissingIsbnCache underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new MissingIsbnCache(2, 1000L);
+  }
+
+  @Test
+  void shouldContainIsbnUntilTtlPasses() {
+    // given
+    underTest.add("isbn", 1000L);
+
+    // when / then
+    assertThat(underTest.contains("isbn", 1999L)).isTrue();
+    assertThat(underTest.contains("isbn", 2000L)).isFalse();
+  }
+
+  @Test
+  void shouldNotRecordMoreThanMaximumSize() {
+    // given
+    underTest.add("isbn1", 1000L);
+    underTest.add("isbn2", 1000L);
+
+    // when
+    underTest.add("isbn3", 1000L);
+
+    // then
+    assertThat(underTest.size()).isEqualTo(2);
+    assertThat(underTest.contains("isbn3", 1000L)).isFalse();
+  }
+
+  @Test
+  void shouldEvictOnlyExpiredIsbns() {
+    // given
+    underTest.add("isbn1", 1000L);
+    underTest.add("isbn2", 1500L);
+
+    // when
+    underTest.evictExpired(2200L);
+
+    // then
+    assertThat(underTest.size()).isEqualTo(1);
+    assertThat(underTest.contains("isbn2", 2200L)).isTrue();
+  }
+
+  @Test
+  void shouldKeepIsbnThatWasRecordedAgainAfterEarlierEntryExpires() {
+    // given
+    underTest.add("isbn", 1000L);
+    underTest.add("isbn", 1800L);
+
+    // when
+    underTest.evictExpired(2200L);
+
+    // then
+    assertThat(underTest.contains("isbn", 2200L)).isTrue();
+  }
+}
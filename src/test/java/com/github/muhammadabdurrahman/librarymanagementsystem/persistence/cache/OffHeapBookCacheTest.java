@@ -0,0 +1,131 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapBookCacheTest {
+
+  private OffHeapBookCache underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new OffHeapBookCache(2, 128, 1000L, null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.close();
+  }
+
+  @Test
+  void shouldReturnBookUntilTtlPasses() {
+    // given
+    var book = book("isbn", "title");
+    underTest.put("isbn", book, 1000L);
+
+    // when / then
+    assertThat(underTest.get("isbn", 1999L)).isEqualTo(book);
+    assertThat(underTest.get("isbn", 2000L)).isNull();
+  }
+
+  @Test
+  void shouldRoundTripNullFields() {
+    // given
+    var book = Book.builder().isbn("isbn").build();
+    underTest.put("isbn", book, 1000L);
+
+    // when
+    Book actual = underTest.get("isbn", 1000L);
+
+    // then
+    assertThat(actual).isEqualTo(book);
+  }
+
+  @Test
+  void shouldReturnLatestVersionOfBook() {
+    // given
+    underTest.put("isbn", book("isbn", "title"), 1000L);
+    underTest.put("isbn", book("isbn", "new title"), 1000L);
+
+    // when
+    Book actual = underTest.get("isbn", 1000L);
+
+    // then
+    assertThat(actual.getTitle()).isEqualTo("new title");
+    assertThat(underTest.size()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotReturnRemovedBook() {
+    // given
+    underTest.put("isbn", book("isbn", "title"), 1000L);
+
+    // when
+    underTest.remove("isbn");
+
+    // then
+    assertThat(underTest.get("isbn", 1000L)).isNull();
+  }
+
+  @Test
+  void shouldDropBooksOfOldestSegmentWhenFull() {
+    // given - each record takes 42 bytes, so a 128 byte segment holds three of them
+    for (int i = 1; i <= 6; i++) {
+      underTest.put("isbn" + i, book("isbn" + i, "title"), 1000L);
+    }
+
+    // when
+    underTest.put("isbn7", book("isbn7", "title"), 1000L);
+
+    // then
+    assertThat(underTest.get("isbn1", 1000L)).isNull();
+    assertThat(underTest.get("isbn3", 1000L)).isNull();
+    assertThat(underTest.get("isbn4", 1000L)).isNotNull();
+    assertThat(underTest.get("isbn7", 1000L)).isNotNull();
+    assertThat(underTest.size()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldNotStoreBookLargerThanSegment() {
+    // given
+    underTest.put("isbn", book("isbn", "title"), 1000L);
+
+    // when
+    underTest.put("isbn", book("isbn", "t".repeat(200)), 1000L);
+
+    // then
+    assertThat(underTest.get("isbn", 1000L)).isNull();
+  }
+
+  @Test
+  void shouldStoreBooksInMemoryMappedFile(@TempDir Path directory) {
+    // given
+    var book = book("isbn", "title");
+    try (var mapped = new OffHeapBookCache(2, 128, 1000L, directory.resolve("books.cache"))) {
+      mapped.put("isbn", book, 1000L);
+
+      // when
+      Book actual = mapped.get("isbn", 1000L);
+
+      // then
+      assertThat(actual).isEqualTo(book);
+      assertThat(mapped.capacityBytes()).isEqualTo(256L);
+    }
+  }
+
+  private static Book book(String isbn, String title) {
+    return Book.builder()
+        .isbn(isbn)
+        .title(title)
+        .author("author")
+        .publicationYear(2017)
+        .availableCopies(5)
+        .build();
+  }
+}
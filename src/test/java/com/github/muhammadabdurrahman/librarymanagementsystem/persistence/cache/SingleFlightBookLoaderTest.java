@@ -0,0 +1,94 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightBookLoaderTest {
+
+  private SingleFlightBookLoader underTest;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new SingleFlightBookLoader(new SimpleMeterRegistry());
+  }
+
+  @Test
+  void shouldReturnLoadedBook() {
+    // given
+    var book = mock(Book.class);
+
+    // when
+    Optional<Book> actual = underTest.load("isbn", isbn -> Optional.of(book));
+
+    // then
+    assertThat(actual).isPresent().contains(book);
+    assertThat(underTest.getCoalescedLoads()).isZero();
+  }
+
+  @Test
+  void shouldCoalesceConcurrentLoadsOfSameIsbn() throws Exception {
+    // given
+    var book = mock(Book.class);
+    var loaderStarted = new CountDownLatch(1);
+    var releaseLoader = new CountDownLatch(1);
+    var loaderInvocations = new AtomicInteger();
+    try (ExecutorService executorService = Executors.newFixedThreadPool(2)) {
+      Future<Optional<Book>> leader = executorService.submit(() -> underTest.load("isbn", isbn -> {
+        loaderInvocations.incrementAndGet();
+        loaderStarted.countDown();
+        await(releaseLoader);
+        return Optional.of(book);
+      }));
+      assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // when
+      Future<Optional<Book>> follower = executorService.submit(() -> underTest.load("isbn", isbn -> {
+        loaderInvocations.incrementAndGet();
+        return Optional.empty();
+      }));
+      while (underTest.getCoalescedLoads() == 0) {
+        Thread.onSpinWait();
+      }
+      releaseLoader.countDown();
+
+      // then
+      assertThat(leader.get(5, TimeUnit.SECONDS)).contains(book);
+      assertThat(follower.get(5, TimeUnit.SECONDS)).contains(book);
+    }
+    assertThat(loaderInvocations.get()).isEqualTo(1);
+    assertThat(underTest.getCoalescedLoads()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldPropagateLoaderFailureAndAllowRetry() {
+    // given
+    var book = mock(Book.class);
+
+    // when / then
+    assertThatThrownBy(() -> underTest.load("isbn", isbn -> {
+      throw new IllegalStateException("database unavailable");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(underTest.load("isbn", isbn -> Optional.of(book))).contains(book);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache.BookCacheItem;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+  private TimerWheel underTest;
+  private List<BookCacheItem> expired;
+
+  @BeforeEach
+  void setUp() {
+    underTest = new TimerWheel(Duration.ofMillis(100), Duration.ofSeconds(2), 0L);
+    expired = new ArrayList<>();
+  }
+
+  @Test
+  void shouldExpireItemOnceItsTickHasElapsed() {
+    // given
+    var item = itemCreatedAt("isbn", 1000L);
+    underTest.schedule(item);
+
+    // when
+    underTest.advance(3000L, i -> true, expired::add);
+    List<BookCacheItem> expiredBeforeDeadline = List.copyOf(expired);
+    underTest.advance(3100L, i -> true, expired::add);
+
+    // then
+    assertThat(expiredBeforeDeadline).isEmpty();
+    assertThat(expired).containsExactly(item);
+  }
+
+  @Test
+  void shouldRescheduleItemWhoseTtlWasRefreshed() {
+    // given
+    var item = itemCreatedAt("isbn", 1000L);
+    underTest.schedule(item);
+    item.refreshTtl(2500L);
+
+    // when
+    underTest.advance(3500L, i -> true, expired::add);
+    List<BookCacheItem> expiredBeforeDeadline = List.copyOf(expired);
+    underTest.advance(4600L, i -> true, expired::add);
+
+    // then
+    assertThat(expiredBeforeDeadline).isEmpty();
+    assertThat(expired).containsExactly(item);
+  }
+
+  @Test
+  void shouldDropItemThatIsNoLongerLive() {
+    // given
+    underTest.schedule(itemCreatedAt("isbn", 1000L));
+
+    // when
+    underTest.advance(5000L, i -> false, expired::add);
+
+    // then
+    assertThat(expired).isEmpty();
+  }
+
+  @Test
+  void shouldExpireItemsAfterPauseLongerThanOneRevolution() {
+    // given
+    var item1 = itemCreatedAt("isbn1", 1000L);
+    var item2 = itemCreatedAt("isbn2", 1500L);
+    underTest.schedule(item1);
+    underTest.schedule(item2);
+
+    // when
+    underTest.advance(60_000L, i -> true, expired::add);
+
+    // then
+    assertThat(expired).containsExactlyInAnyOrder(item1, item2);
+  }
+
+  private BookCacheItem itemCreatedAt(String isbn, long currentTimeMs) {
+    return new BookCacheItem(isbn, mock(Book.class), currentTimeMs);
+  }
+}
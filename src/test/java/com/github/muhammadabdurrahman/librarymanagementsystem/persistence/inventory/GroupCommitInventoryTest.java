@@ -0,0 +1,162 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class GroupCommitInventoryTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final GroupCommitInventoryProperties properties = GroupCommitInventoryProperties.builder()
+      .window(Duration.ofMillis(50))
+      .batchSize(8)
+      .requestTimeout(Duration.ofSeconds(5))
+      .build();
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+  private GroupCommitInventory underTest;
+
+  @BeforeEach
+  void setUp() {
+    var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE TABLE books (isbn VARCHAR(255) PRIMARY KEY, available_copies INT NOT NULL)");
+    jdbcTemplate.update("INSERT INTO books (isbn, available_copies) VALUES ('isbn', 5)");
+    transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    underTest = new GroupCommitInventory(jdbcTemplate, transactionTemplate, properties, registry);
+    underTest.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    underTest.stop();
+  }
+
+  @Test
+  void shouldBorrowAndReturnBook() {
+    // when
+    underTest.borrow("isbn");
+    underTest.borrow("isbn");
+    underTest.giveBack("isbn");
+
+    // then
+    assertThat(databaseCopies()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldThrowBookNotFoundExceptionForUnknownBook() {
+    // when / then
+    assertThatThrownBy(() -> underTest.borrow("unknown"))
+        .isInstanceOf(BookNotFoundException.class);
+  }
+
+  @Test
+  void shouldCommitConcurrentRequestsTogetherWithOutcomePerRequest() throws Exception {
+    // given
+    List<Future<?>> borrows = new ArrayList<>();
+
+    // when
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < 8; i++) {
+        borrows.add(executor.submit(() -> underTest.borrow("isbn")));
+      }
+    }
+
+    // then
+    int rejected = 0;
+    for (Future<?> borrow : borrows) {
+      try {
+        borrow.get();
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(InsufficientNumberOfAvailableCopiesException.class);
+        rejected++;
+      }
+    }
+    assertThat(rejected).isEqualTo(3);
+    assertThat(databaseCopies()).isZero();
+    assertThat(registry.get("inventory.group.commit.batch.size").summary().count()).isLessThan(8);
+  }
+
+  @Test
+  void shouldRejectRequestsOnceStopped() throws InterruptedException {
+    // given
+    underTest.stop();
+
+    // when / then
+    assertThatThrownBy(() -> underTest.borrow("isbn"))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("The inventory is shutting down");
+  }
+
+  @Test
+  void shouldKeepCommittingAfterBatchFailsWithError() throws InterruptedException {
+    // given
+    var failed = new AtomicBoolean();
+    var failingOnce = new TransactionTemplate(transactionTemplate.getTransactionManager()) {
+      @Override
+      public <T> T execute(TransactionCallback<T> action) {
+        if (failed.compareAndSet(false, true)) {
+          throw new StackOverflowError();
+        }
+        return super.execute(action);
+      }
+    };
+    var inventory = new GroupCommitInventory(jdbcTemplate, failingOnce, properties, registry);
+    inventory.start();
+
+    try {
+      // when / then
+      assertThatThrownBy(() -> inventory.borrow("isbn"))
+          .isInstanceOf(IllegalStateException.class)
+          .hasCauseInstanceOf(StackOverflowError.class);
+      inventory.borrow("isbn");
+      assertThat(databaseCopies()).isEqualTo(4);
+    } finally {
+      inventory.stop();
+    }
+  }
+
+  @Test
+  void shouldStopWaitingAfterRequestTimeout() throws InterruptedException {
+    // given
+    var inventory = new GroupCommitInventory(jdbcTemplate, transactionTemplate, GroupCommitInventoryProperties.builder()
+        .window(Duration.ofMillis(50))
+        .batchSize(8)
+        .requestTimeout(Duration.ofMillis(1))
+        .build(), registry);
+    inventory.start();
+
+    try {
+      // when / then
+      assertThatThrownBy(() -> inventory.borrow("isbn"))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageStartingWith("Timed out waiting for the group commit of isbn");
+    } finally {
+      inventory.stop();
+    }
+  }
+
+  private int databaseCopies() {
+    return jdbcTemplate.queryForObject("SELECT available_copies FROM books WHERE isbn = 'isbn'", Integer.class);
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory.InventoryJournal.Segment;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InventoryJournalTest {
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  void shouldSumChangesPerIsbnOnRotate() {
+    // given
+    try (var journal = new InventoryJournal(directory, 1)) {
+      journal.write("isbn1", -1);
+      journal.write("isbn1", -1);
+      journal.write("isbn2", 1);
+
+      // when
+      Segment segment = journal.rotate();
+
+      // then
+      assertThat(segment.id()).isEqualTo(1);
+      assertThat(segment.changes()).isEqualTo(Map.of("isbn1", -2, "isbn2", 1));
+      assertThat(journal.rotate()).isNull();
+    }
+  }
+
+  @Test
+  void shouldReplaySegmentsLeftBehindInOrder() {
+    // given
+    try (var journal = new InventoryJournal(directory, 4)) {
+      journal.write("isbn1", -1);
+      journal.rotate();
+      journal.write("isbn1", 1);
+      journal.write("isbn2", -1);
+    }
+
+    // when
+    var segments = InventoryJournal.replay(directory);
+
+    // then
+    assertThat(segments).containsExactly(
+        new Segment(4, Map.of("isbn1", -1)),
+        new Segment(5, Map.of("isbn1", 1, "isbn2", -1)));
+  }
+
+  @Test
+  void shouldIgnoreTornRecordAtEndOfSegment() throws IOException {
+    // given
+    try (var journal = new InventoryJournal(directory, 1)) {
+      journal.write("isbn1", -1);
+    }
+    Files.write(directory.resolve("inventory-1.journal"), new byte[]{0, 0, 0, 9, 'i', 's'}, StandardOpenOption.APPEND);
+
+    // when
+    var segments = InventoryJournal.replay(directory);
+
+    // then
+    assertThat(segments).containsExactly(new Segment(1, Map.of("isbn1", -1)));
+  }
+
+  @Test
+  void shouldStopReplayAtCorruptRecord() throws IOException {
+    // given
+    try (var journal = new InventoryJournal(directory, 1)) {
+      journal.write("isbn1", -1);
+      journal.write("isbn2", -1);
+      journal.write("isbn3", -1);
+    }
+    Path segment = directory.resolve("inventory-1.journal");
+    byte[] records = Files.readAllBytes(segment);
+    // Flip a bit in the change of the second record, whose payload starts after the 17 bytes of the first and its own length
+    records[17 + Integer.BYTES + "isbn2".length()] ^= 1;
+    Files.write(segment, records);
+
+    // when
+    var segments = InventoryJournal.replay(directory);
+
+    // then
+    assertThat(segments).containsExactly(new Segment(1, Map.of("isbn1", -1)));
+  }
+
+  @Test
+  void shouldNotReplayDeletedSegment() {
+    // given
+    try (var journal = new InventoryJournal(directory, 1)) {
+      journal.write("isbn1", -1);
+      Segment segment = journal.rotate();
+
+      // when
+      journal.delete(segment.id());
+    }
+
+    // then
+    assertThat(InventoryJournal.replay(directory)).containsExactly(new Segment(2, Map.of()));
+  }
+}
@@ -0,0 +1,122 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class WriteBehindInventoryTest {
+
+  @TempDir
+  private Path directory;
+
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+  private WriteBehindInventory underTest;
+
+  @BeforeEach
+  void setUp() {
+    var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    jdbcTemplate.execute("CREATE TABLE books (isbn VARCHAR(255) PRIMARY KEY, available_copies INT NOT NULL)");
+    jdbcTemplate.update("INSERT INTO books (isbn, available_copies) VALUES ('isbn', 2)");
+    underTest = inventory();
+  }
+
+  @Test
+  void shouldBorrowFromCounterWithoutWritingToDatabase() {
+    // when
+    underTest.borrow("isbn");
+
+    // then
+    assertThat(underTest.availableCopies("isbn")).isEqualTo(1);
+    assertThat(databaseCopies()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRejectBorrowWhenNoCopiesAreLeft() {
+    // given
+    underTest.borrow("isbn");
+    underTest.borrow("isbn");
+
+    // when / then
+    assertThatThrownBy(() -> underTest.borrow("isbn"))
+        .isInstanceOf(InsufficientNumberOfAvailableCopiesException.class);
+    assertThat(underTest.availableCopies("isbn")).isZero();
+  }
+
+  @Test
+  void shouldThrowBookNotFoundExceptionForUnknownBook() {
+    // when / then
+    assertThatThrownBy(() -> underTest.borrow("unknown"))
+        .isInstanceOf(BookNotFoundException.class);
+    assertThat(underTest.availableCopies("unknown")).isNull();
+  }
+
+  @Test
+  void shouldWriteNetChangesOnFlush() {
+    // given
+    underTest.borrow("isbn");
+    underTest.borrow("isbn");
+    underTest.giveBack("isbn");
+
+    // when
+    underTest.flush();
+
+    // then
+    assertThat(databaseCopies()).isEqualTo(1);
+    assertThat(jdbcTemplate.queryForObject("SELECT segment FROM inventory_checkpoint WHERE id = 1", Long.class)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecoverUnflushedChangesOnRestart() {
+    // given
+    underTest.borrow("isbn");
+    underTest.flush();
+    underTest.borrow("isbn");
+
+    // when
+    inventory();
+
+    // then
+    assertThat(databaseCopies()).isZero();
+  }
+
+  @Test
+  void shouldNotReapplySegmentWrittenBeforeItWasDeleted() {
+    // given
+    underTest.borrow("isbn");
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.update("UPDATE books SET available_copies = available_copies - 1 WHERE isbn = 'isbn'");
+      jdbcTemplate.update("UPDATE inventory_checkpoint SET segment = 1 WHERE id = 1");
+    });
+
+    // when
+    inventory();
+
+    // then
+    assertThat(databaseCopies()).isEqualTo(1);
+  }
+
+  private WriteBehindInventory inventory() {
+    var inventory = new WriteBehindInventory(jdbcTemplate, transactionTemplate,
+        WriteBehindInventoryProperties.builder().journalDirectory(directory).build());
+    inventory.start();
+    return inventory;
+  }
+
+  private int databaseCopies() {
+    return jdbcTemplate.queryForObject("SELECT available_copies FROM books WHERE isbn = 'isbn'", Integer.class);
+  }
+}
@@ -3,26 +3,47 @@ package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookAlreadyExistsException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult.Outcome;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.AuthorIndex;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.SingleFlightBookLoader;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.BookEntity;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.model.mapper.BookEntityMapper;
 import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 @ExtendWith(MockitoExtension.class)
 class BookStoreImplTest {
@@ -33,6 +54,12 @@ class BookStoreImplTest {
   @Mock
   private BookCache cache;
 
+  @Spy
+  private SingleFlightBookLoader loader = new SingleFlightBookLoader(new SimpleMeterRegistry());
+
+  @Mock
+  private AuthorIndex authorIndex;
+
   @Mock
   private BookEntityMapper mapper;
 
@@ -67,7 +94,28 @@ class BookStoreImplTest {
 
     // then
     verify(repository).saveAndFlush(bookEntity);
+    verify(cache).removeMissing(book.getIsbn());
     verify(cache).put(book.getIsbn(), book);
+    verify(authorIndex).addIsbn(book.getAuthor(), book.getIsbn());
+  }
+
+  @Test
+  void shouldClearMissingEntryOnlyAfterAddTransactionCommits() {
+    // given
+    doReturn(false).when(repository).existsById(book.getIsbn());
+    doReturn(bookEntity).when(mapper).map(book);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // when
+      underTest.addBook(book);
+      verify(cache, never()).removeMissing(any());
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // then
+    verify(cache).removeMissing(book.getIsbn());
   }
 
   @Test
@@ -84,10 +132,45 @@ class BookStoreImplTest {
     verify(cache, never()).put(any(), any());
   }
 
+  @Test
+  void shouldPassEveryBookToActionWithoutCaching() {
+    // given
+    doAnswer(invocation -> {
+      Consumer<BookEntity> action = invocation.getArgument(1);
+      action.accept(bookEntity);
+      return null;
+    }).when(repository).forEachBook(eq(100), any());
+    doReturn(book).when(mapper).map(bookEntity);
+    List<Book> visited = new ArrayList<>();
+
+    // when
+    underTest.forEachBook(100, visited::add);
+
+    // then
+    assertThat(visited).containsExactly(book);
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  void shouldAddOnlyBooksNotInCatalogYet() {
+    // given
+    var existing = Book.builder().isbn("existing-isbn").build();
+    doReturn(List.of("existing-isbn")).when(repository).findExistingIsbns(List.of(book.getIsbn(), "existing-isbn"));
+    doReturn(bookEntity).when(mapper).map(book);
+
+    // when
+    Set<String> result = underTest.addBooks(List.of(book, existing));
+
+    // then
+    assertThat(result).containsExactly("existing-isbn");
+    verify(repository).persistAll(List.of(bookEntity));
+    verify(cache).removeMissing(book.getIsbn());
+  }
+
   @Test
   void shouldRemoveBook() {
     // given
-    doReturn(true).when(repository).existsById(book.getIsbn());
+    doReturn(Optional.of(bookEntity)).when(repository).findById(book.getIsbn());
     doNothing().when(repository).deleteById(book.getIsbn());
     doNothing().when(repository).flush();
     doNothing().when(cache).remove(book.getIsbn());
@@ -99,12 +182,13 @@ class BookStoreImplTest {
     verify(repository).deleteById(book.getIsbn());
     verify(repository).flush();
     verify(cache).remove(book.getIsbn());
+    verify(authorIndex).removeIsbn(bookEntity.getAuthor(), book.getIsbn());
   }
 
   @Test
   void shouldThrowExceptionWhenRemovingNonExistingBook() {
     // given
-    doReturn(false).when(repository).existsById(book.getIsbn());
+    doReturn(Optional.empty()).when(repository).findById(book.getIsbn());
 
     // when / then
     var isbn = book.getIsbn();
@@ -120,9 +204,8 @@ class BookStoreImplTest {
   @Test
   void shouldFindBookByIsbn() {
     // given
-    doReturn(Optional.empty()).when(cache).get(book.getIsbn());
-    doReturn(book).when(mapper).map(bookEntity);
-    doReturn(Optional.of(bookEntity)).when(repository).findById(book.getIsbn());
+    doReturn(null).when(cache).getIfPresent(book.getIsbn());
+    doReturn(Optional.of(book)).when(repository).findBookByIsbn(book.getIsbn());
     doNothing().when(cache).put(book.getIsbn(), book);
 
     // when
@@ -136,8 +219,8 @@ class BookStoreImplTest {
   @Test
   void shouldReturnEmptyWhenBookNotFoundByIsbn() {
     // given
-    doReturn(Optional.empty()).when(cache).get(book.getIsbn());
-    doReturn(Optional.empty()).when(repository).findById(book.getIsbn());
+    doReturn(null).when(cache).getIfPresent(book.getIsbn());
+    doReturn(Optional.empty()).when(repository).findBookByIsbn(book.getIsbn());
 
     // when
     Optional<Book> actual = underTest.findBookByIsbn(book.getIsbn());
@@ -145,12 +228,153 @@ class BookStoreImplTest {
     // then
     assertThat(actual).isNotPresent();
     verify(cache, never()).put(any(), any());
+    verify(cache).putMissing(book.getIsbn());
+  }
+
+  @Test
+  void shouldReturnEmptyWithoutQueryingRepositoryWhenIsbnKnownMissing() {
+    // given
+    doReturn(true).when(cache).isKnownMissing(book.getIsbn());
+
+    // when
+    Optional<Book> actual = underTest.findBookByIsbn(book.getIsbn());
+
+    // then
+    assertThat(actual).isNotPresent();
+    verify(repository, never()).findBookByIsbn(any());
+  }
+
+  @Test
+  void shouldFindBookByIsbnInCacheWithoutQueryingRepository() {
+    // given
+    doReturn(book).when(cache).getIfPresent(book.getIsbn());
+
+    // when
+    Optional<Book> actual = underTest.findBookByIsbn(book.getIsbn());
+
+    // then
+    assertThat(actual).isPresent().contains(book);
+    verify(repository, never()).findBookByIsbn(any());
+  }
+
+  @Test
+  void shouldFindBooksByAuthorFromRepositoryAndIndexThemWhenAuthorNotIndexed() {
+    // given
+    doReturn(null).when(authorIndex).get(book.getAuthor());
+    doReturn(7L).when(authorIndex).generation(book.getAuthor());
+    doReturn(List.of(book)).when(repository).findByAuthorAndIsbnGreaterThanOrderByIsbn(book.getAuthor(), "", Limit.of(11));
+
+    // when
+    BookPage actual = underTest.findBooksByAuthor(book.getAuthor(), null, 10);
+
+    // then
+    assertThat(actual).isEqualTo(new BookPage(List.of(book), null));
+    verify(cache).put(book.getIsbn(), book);
+    verify(authorIndex).put(book.getAuthor(), List.of(book.getIsbn()), 7L);
+  }
+
+  @Test
+  void shouldReturnPartialPageOfAuthorWithoutIndexingIt() {
+    // given
+    var next = Book.builder().isbn("next-isbn").author(book.getAuthor()).build();
+    doReturn(null).when(authorIndex).get(book.getAuthor());
+    doReturn(List.of(book, next)).when(repository).findByAuthorAndIsbnGreaterThanOrderByIsbn(book.getAuthor(), "", Limit.of(2));
+
+    // when
+    BookPage actual = underTest.findBooksByAuthor(book.getAuthor(), null, 1);
+
+    // then
+    assertThat(actual).isEqualTo(new BookPage(List.of(book), book.getIsbn()));
+    verify(authorIndex, never()).put(any(), any(), anyLong());
+  }
+
+  @Test
+  void shouldResolveIndexedBooksByAuthorThroughCache() {
+    // given
+    doReturn(new TreeSet<>(Set.of(book.getIsbn()))).when(authorIndex).get(book.getAuthor());
+    doReturn(book).when(cache).getIfPresent(book.getIsbn());
+
+    // when
+    BookPage actual = underTest.findBooksByAuthor(book.getAuthor(), null, 10);
+
+    // then
+    assertThat(actual).isEqualTo(new BookPage(List.of(book), null));
+    verify(repository, never()).findByAuthorAndIsbnGreaterThanOrderByIsbn(any(), any(), any());
+    verify(repository, never()).findBooksByIsbnIn(any());
+  }
+
+  @Test
+  void shouldPageThroughIndexedBooksByAuthorAfterIsbn() {
+    // given
+    var second = Book.builder().isbn("isbn2").build();
+    doReturn(new TreeSet<>(Set.of("isbn1", "isbn2", "isbn3", "isbn4"))).when(authorIndex).get(book.getAuthor());
+    doReturn(second).when(cache).getIfPresent("isbn2");
+    doReturn(null).when(cache).getIfPresent("isbn3");
+    doReturn(List.of()).when(repository).findBooksByIsbnIn(List.of("isbn3"));
+
+    // when
+    BookPage actual = underTest.findBooksByAuthor(book.getAuthor(), "isbn1", 2);
+
+    // then
+    assertThat(actual).isEqualTo(new BookPage(List.of(second), "isbn3"));
+    verify(authorIndex).removeIsbn(book.getAuthor(), "isbn3");
+  }
+
+  @Test
+  void shouldLoadIndexedBooksMissingFromCacheAndPruneRemovedOnes() {
+    // given
+    doReturn(new TreeSet<>(Set.of(book.getIsbn(), "removed-isbn"))).when(authorIndex).get(book.getAuthor());
+    doReturn(List.of(book)).when(repository).findBooksByIsbnIn(any());
+
+    // when
+    BookPage actual = underTest.findBooksByAuthor(book.getAuthor(), null, 10);
+
+    // then
+    assertThat(actual).isEqualTo(new BookPage(List.of(book), null));
+    verify(cache).put(book.getIsbn(), book);
+    verify(authorIndex).removeIsbn(book.getAuthor(), "removed-isbn");
+    verify(repository, never()).findByAuthorAndIsbnGreaterThanOrderByIsbn(any(), any(), any());
+  }
+
+  @Test
+  void shouldFindPageOfBooksAfterIsbnWithoutCachingThem() {
+    // given
+    var next = Book.builder().isbn("next-isbn").build();
+    doReturn(List.of(book, next)).when(repository).findByIsbnGreaterThanOrderByIsbn("after-isbn", Limit.of(2));
+
+    // when
+    BookPage actual = underTest.findBooks("after-isbn", 1);
+
+    // then
+    assertThat(actual).isEqualTo(new BookPage(List.of(book), book.getIsbn()));
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  void shouldFindBooksByIsbnsLoadingCacheMissesWithSingleQuery() {
+    // given
+    var cached = Book.builder().isbn("cached-isbn").build();
+    var isbns = List.of("cached-isbn", book.getIsbn(), "missing-isbn", "unknown-isbn");
+    doReturn(new HashMap<>(Map.of("cached-isbn", cached))).when(cache).getAllPresent(isbns);
+    doReturn(false).when(cache).isKnownMissing(book.getIsbn());
+    doReturn(true).when(cache).isKnownMissing("missing-isbn");
+    doReturn(false).when(cache).isKnownMissing("unknown-isbn");
+    doReturn(List.of(book)).when(repository).findBooksByIsbnIn(List.of(book.getIsbn(), "unknown-isbn"));
+
+    // when
+    Map<String, Book> result = underTest.findBooksByIsbns(isbns);
+
+    // then
+    assertThat(result).isEqualTo(Map.of("cached-isbn", cached, book.getIsbn(), book));
+    verify(cache).putAll(List.of(book));
+    verify(cache).putMissing("unknown-isbn");
   }
 
   @Test
   void shouldBorrowBook() {
     // given
     doReturn(Optional.of(bookEntity)).when(repository).findByIdForUpdate(book.getIsbn());
+    doReturn(book).when(mapper).map(bookEntity);
     bookEntity.setAvailableCopies(1);
 
     // when
@@ -159,7 +383,27 @@ class BookStoreImplTest {
     // then
     assertThat(bookEntity.getAvailableCopies()).isZero();
     verify(repository).save(bookEntity);
-    verify(cache).remove(book.getIsbn());
+    verify(cache).put(book.getIsbn(), book);
+    verify(cache, never()).remove(any());
+  }
+
+  @Test
+  void shouldUpdateCacheOnlyAfterBorrowTransactionCommits() {
+    // given
+    doReturn(Optional.of(bookEntity)).when(repository).findByIdForUpdate(book.getIsbn());
+    doReturn(book).when(mapper).map(bookEntity);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // when
+      underTest.borrowBook(book.getIsbn());
+      verify(cache, never()).put(any(), any());
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // then
+    verify(cache).put(book.getIsbn(), book);
   }
 
   @Test
@@ -175,7 +419,7 @@ class BookStoreImplTest {
         .hasMessageContaining("Insufficient number of available copies for book with ISBN %s".formatted(book.getIsbn()));
 
     verify(repository, never()).save(any());
-    verify(cache, never()).remove(any());
+    verify(cache, never()).put(any(), any());
   }
 
   @Test
@@ -190,13 +434,14 @@ class BookStoreImplTest {
         .hasMessageContaining("Book with ISBN %s not found".formatted(book.getIsbn()));
 
     verify(repository, never()).save(any());
-    verify(cache, never()).remove(any());
+    verify(cache, never()).put(any(), any());
   }
 
   @Test
   void shouldReturnBook() {
     // given
     doReturn(Optional.of(bookEntity)).when(repository).findByIdForUpdate(book.getIsbn());
+    doReturn(book).when(mapper).map(bookEntity);
     bookEntity.setAvailableCopies(0);
 
     // when
@@ -205,7 +450,8 @@ class BookStoreImplTest {
     // then
     assertThat(bookEntity.getAvailableCopies()).isEqualTo(1);
     verify(repository).save(bookEntity);
-    verify(cache).remove(book.getIsbn());
+    verify(cache).put(book.getIsbn(), book);
+    verify(cache, never()).remove(any());
   }
 
   @Test
@@ -220,7 +466,44 @@ class BookStoreImplTest {
         .hasMessageContaining("Book with ISBN %s not found".formatted(book.getIsbn()));
 
     verify(repository, never()).save(any());
-    verify(cache, never()).remove(any());
+    verify(cache, never()).put(any(), any());
   }
 
-}
\ No newline at end of file
+  @Test
+  void shouldBorrowBooksWithPerItemResults() {
+    // given
+    var emptyEntity = new BookEntity("empty-isbn", "title", "author", 2017, 0);
+    doReturn(List.of(bookEntity, emptyEntity)).when(repository)
+        .findAllByIdForUpdate(Set.of(book.getIsbn(), "empty-isbn", "unknown-isbn"));
+    doReturn(book).when(mapper).map(bookEntity);
+
+    // when
+    List<BatchItemResult> results = underTest.borrowBooks(
+        List.of(book.getIsbn(), "empty-isbn", "unknown-isbn", book.getIsbn()));
+
+    // then
+    assertThat(results).containsExactly(
+        new BatchItemResult(book.getIsbn(), Outcome.SUCCEEDED),
+        new BatchItemResult("empty-isbn", Outcome.INSUFFICIENT_COPIES),
+        new BatchItemResult("unknown-isbn", Outcome.BOOK_NOT_FOUND),
+        new BatchItemResult(book.getIsbn(), Outcome.SUCCEEDED));
+    assertThat(bookEntity.getAvailableCopies()).isEqualTo(3);
+    assertThat(emptyEntity.getAvailableCopies()).isZero();
+    verify(repository).saveAll(any());
+    verify(cache).put(book.getIsbn(), book);
+  }
+
+  @Test
+  void shouldReturnBooks() {
+    // given
+    doReturn(List.of(bookEntity)).when(repository).findAllByIdForUpdate(Set.of(book.getIsbn()));
+    doReturn(book).when(mapper).map(bookEntity);
+
+    // when
+    List<BatchItemResult> results = underTest.returnBooks(List.of(book.getIsbn()));
+
+    // then
+    assertThat(results).containsExactly(new BatchItemResult(book.getIsbn(), Outcome.SUCCEEDED));
+    assertThat(bookEntity.getAvailableCopies()).isEqualTo(6);
+  }
+}
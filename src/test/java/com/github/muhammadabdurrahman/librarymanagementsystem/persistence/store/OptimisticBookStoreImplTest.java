@@ -0,0 +1,110 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.BookNotFoundException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.exception.InsufficientNumberOfAvailableCopiesException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCache;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticBookStoreImplTest {
+
+  @Mock
+  private BookStoreImpl delegate;
+
+  @Mock
+  private BookJpaRepository repository;
+
+  @Mock
+  private BookCache cache;
+
+  @InjectMocks
+  private OptimisticBookStoreImpl underTest;
+
+  @Test
+  void shouldBorrowBookAndEvictItFromCache() {
+    // given
+    doReturn(1).when(repository).decrementAvailableCopies("isbn");
+    doNothing().when(cache).remove("isbn");
+
+    // when
+    underTest.borrowBook("isbn");
+
+    // then
+    verify(cache).remove("isbn");
+  }
+
+  @Test
+  void shouldThrowBookNotFoundExceptionWhenBorrowingUnknownBook() {
+    // given
+    doReturn(0).when(repository).decrementAvailableCopies("isbn");
+    doReturn(false).when(repository).existsById("isbn");
+
+    // when / then
+    assertThatThrownBy(() -> underTest.borrowBook("isbn"))
+        .isInstanceOf(BookNotFoundException.class);
+    verify(cache, never()).remove(any());
+  }
+
+  @Test
+  void shouldThrowInsufficientNumberOfAvailableCopiesExceptionWhenNoCopiesLeft() {
+    // given
+    doReturn(0).when(repository).decrementAvailableCopies("isbn");
+    doReturn(true).when(repository).existsById("isbn");
+
+    // when / then
+    assertThatThrownBy(() -> underTest.borrowBook("isbn"))
+        .isInstanceOf(InsufficientNumberOfAvailableCopiesException.class);
+    verify(cache, never()).remove(any());
+  }
+
+  @Test
+  void shouldReturnBookAndEvictItFromCache() {
+    // given
+    doReturn(1).when(repository).incrementAvailableCopies("isbn");
+    doNothing().when(cache).remove("isbn");
+
+    // when
+    underTest.returnBook("isbn");
+
+    // then
+    verify(cache).remove("isbn");
+  }
+
+  @Test
+  void shouldThrowBookNotFoundExceptionWhenReturningUnknownBook() {
+    // given
+    doReturn(0).when(repository).incrementAvailableCopies("isbn");
+
+    // when / then
+    assertThatThrownBy(() -> underTest.returnBook("isbn"))
+        .isInstanceOf(BookNotFoundException.class);
+  }
+
+  @Test
+  void shouldDelegateLookups() {
+    // given
+    var book = Book.builder().isbn("isbn").build();
+    doReturn(Optional.of(book)).when(delegate).findBookByIsbn("isbn");
+
+    // when
+    Optional<Book> actual = underTest.findBookByIsbn("isbn");
+
+    // then
+    assertThat(actual).contains(book);
+  }
+}
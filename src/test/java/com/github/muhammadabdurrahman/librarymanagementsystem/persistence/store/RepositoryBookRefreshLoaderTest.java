@@ -0,0 +1,74 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.persistence.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.repository.BookJpaRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryBookRefreshLoaderTest {
+
+  @Mock
+  private BookJpaRepository repository;
+
+  @InjectMocks
+  private RepositoryBookRefreshLoader underTest;
+
+  @Test
+  void shouldLoadBookFromRepository() {
+    // given
+    var book = Book.builder()
+        .isbn("isbn")
+        .title("title")
+        .author("author")
+        .publicationYear(2017)
+        .availableCopies(5)
+        .build();
+    doReturn(Optional.of(book)).when(repository).findBookByIsbn("isbn");
+
+    // when
+    Optional<Book> actual = underTest.load("isbn");
+
+    // then
+    assertThat(actual).isPresent().contains(book);
+  }
+
+  @Test
+  void shouldReturnEmptyWhenBookNoLongerExists() {
+    // given
+    doReturn(Optional.empty()).when(repository).findBookByIsbn("isbn");
+
+    // when
+    Optional<Book> actual = underTest.load("isbn");
+
+    // then
+    assertThat(actual).isNotPresent();
+  }
+
+  @Test
+  void shouldLoadAllBooksInOneQuery() {
+    // given
+    var book = Book.builder()
+        .isbn("isbn")
+        .title("title")
+        .author("author")
+        .publicationYear(2017)
+        .availableCopies(5)
+        .build();
+    doReturn(List.of(book)).when(repository).findBooksByIsbnIn(List.of("isbn", "deleted"));
+
+    // when
+    List<Book> actual = underTest.loadAll(List.of("isbn", "deleted"));
+
+    // then
+    assertThat(actual).containsExactly(book);
+  }
+}
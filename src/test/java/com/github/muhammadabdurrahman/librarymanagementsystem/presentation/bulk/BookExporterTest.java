@@ -0,0 +1,90 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.service.LibraryService;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper.BookResourceMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.MediaType;
+
+class BookExporterTest {
+
+  private final LibraryService libraryService = mock(LibraryService.class);
+  private final BookExporter underTest = new BookExporter(libraryService, Mappers.getMapper(BookResourceMapper.class),
+      new ObjectMapper(), BulkProperties.builder().exportFetchSize(50).build());
+
+  private final List<Book> books = List.of(
+      Book.builder().isbn("978-0-596-52068-1").title("The Hobbit").author("J. R. R. Tolkien").publicationYear(1937)
+          .availableCopies(5).build(),
+      Book.builder().isbn("978-0-596-52068-2").title("The Silmarillion").author("J. R. R. Tolkien").publicationYear(1977)
+          .availableCopies(0).build());
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(invocation -> {
+      Consumer<Book> action = invocation.getArgument(1);
+      books.forEach(action);
+      return null;
+    }).when(libraryService).exportBooks(eq(50), any());
+  }
+
+  @Test
+  void shouldExportOneJsonRecordPerLine() throws IOException {
+    // given
+    var output = new ByteArrayOutputStream();
+
+    // when
+    underTest.exportBooks(output, BookExporter.APPLICATION_NDJSON);
+
+    // then
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+        {"isbn":"978-0-596-52068-1","title":"The Hobbit","author":"J. R. R. Tolkien","publicationYear":1937,"availableCopies":5}
+        {"isbn":"978-0-596-52068-2","title":"The Silmarillion","author":"J. R. R. Tolkien","publicationYear":1977,"availableCopies":0}
+        """);
+  }
+
+  @Test
+  void shouldExportBinaryRecords() throws IOException {
+    // given
+    var output = new ByteArrayOutputStream();
+
+    // when
+    underTest.exportBooks(output, BookExporter.APPLICATION_OCTET_STREAM);
+
+    // then
+    var input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+    for (Book book : books) {
+      assertThat(input.readUTF()).isEqualTo(book.getIsbn());
+      assertThat(input.readUTF()).isEqualTo(book.getTitle());
+      assertThat(input.readUTF()).isEqualTo(book.getAuthor());
+      assertThat(input.readInt()).isEqualTo(book.getPublicationYear());
+      assertThat(input.readInt()).isEqualTo(book.getAvailableCopies());
+    }
+    assertThat(input.available()).isZero();
+  }
+
+  @Test
+  void shouldNegotiateFormatFromAcceptHeader() {
+    assertThat(BookExporter.negotiateFormat(null)).isEqualTo(BookExporter.APPLICATION_NDJSON);
+    assertThat(BookExporter.negotiateFormat("*/*")).isEqualTo(BookExporter.APPLICATION_NDJSON);
+    assertThat(BookExporter.negotiateFormat("application/octet-stream, application/x-ndjson"))
+        .isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+    assertThat(BookExporter.negotiateFormat("application/x-ndjson, application/octet-stream"))
+        .isEqualTo(BookExporter.APPLICATION_NDJSON);
+  }
+}
@@ -0,0 +1,135 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.service.LibraryService;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookImportErrorResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookImportReportResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper.BookResourceMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class BookImporterTest {
+
+  private static final String HOBBIT = "978-0-596-52068-1";
+  private static final String SILMARILLION = "978-0-596-52068-2";
+
+  private final LibraryService libraryService = mock(LibraryService.class);
+  private final BookImporter underTest = new BookImporter(libraryService, Mappers.getMapper(BookResourceMapper.class), new ObjectMapper(),
+      Validation.buildDefaultValidatorFactory().getValidator(),
+      BulkProperties.builder().importChunkSize(2).maximumReportedErrors(10).build());
+
+  @Test
+  void shouldImportNdjsonInChunksAndReportRejectedRecords() throws IOException {
+    // given
+    String input = """
+        {"isbn": "978-0-596-52068-1", "title": "The Hobbit", "author": "J. R. R. Tolkien", "publicationYear": 1937, "availableCopies": 5}
+        not json
+        {"isbn": "978-0-596-52068-2", "title": "The Silmarillion", "author": "J. R. R. Tolkien", "publicationYear": 1977, "availableCopies": 2}
+
+        {"isbn": "978-0-596-52068-3", "title": "", "author": "J. R. R. Tolkien", "publicationYear": 1954, "availableCopies": 1}
+        {"isbn": "978-0-596-52068-4", "title": "The Two Towers", "author": "J. R. R. Tolkien", "publicationYear": 1954, "availableCopies": 1}
+        """;
+    doReturn(Set.of(SILMARILLION)).when(libraryService).importBooks(any());
+
+    // when
+    BookImportReportResource report = underTest.importBooks(stream(input), BookImporter.APPLICATION_NDJSON);
+
+    // then
+    assertThat(report.imported()).isEqualTo(2);
+    assertThat(report.rejected()).isEqualTo(3);
+    assertThat(report.errors()).containsExactly(
+        new BookImportErrorResource(2, null, "Malformed JSON record"),
+        new BookImportErrorResource(3, SILMARILLION, "Book already exists"),
+        new BookImportErrorResource(5, "978-0-596-52068-3", "Title is required"));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Book>> chunks = ArgumentCaptor.forClass(List.class);
+    verify(libraryService, times(2)).importBooks(chunks.capture());
+    assertThat(chunks.getAllValues()).extracting(List::size).containsExactly(2, 1);
+  }
+
+  @Test
+  void shouldStoreChunkAgainWhenConcurrentAddConflicts() throws IOException {
+    // given
+    String input = """
+        {"isbn": "978-0-596-52068-1", "title": "The Hobbit", "author": "J. R. R. Tolkien", "publicationYear": 1937, "availableCopies": 5}
+        {"isbn": "978-0-596-52068-2", "title": "The Silmarillion", "author": "J. R. R. Tolkien", "publicationYear": 1977, "availableCopies": 2}
+        """;
+    doThrow(new DataIntegrityViolationException("duplicate key"))
+        .doReturn(Set.of(HOBBIT))
+        .when(libraryService).importBooks(any());
+
+    // when
+    BookImportReportResource report = underTest.importBooks(stream(input), BookImporter.APPLICATION_NDJSON);
+
+    // then
+    assertThat(report.imported()).isEqualTo(1);
+    assertThat(report.errors()).containsExactly(new BookImportErrorResource(1, HOBBIT, "Book already exists"));
+    verify(libraryService, times(2)).importBooks(any());
+  }
+
+  @Test
+  void shouldRejectChunkWhenItKeepsConflicting() throws IOException {
+    // given
+    String input = """
+        {"isbn": "978-0-596-52068-1", "title": "The Hobbit", "author": "J. R. R. Tolkien", "publicationYear": 1937, "availableCopies": 5}
+        """;
+    doThrow(new DataIntegrityViolationException("duplicate key")).when(libraryService).importBooks(any());
+
+    // when
+    BookImportReportResource report = underTest.importBooks(stream(input), BookImporter.APPLICATION_NDJSON);
+
+    // then
+    assertThat(report.imported()).isZero();
+    assertThat(report.errors()).containsExactly(new BookImportErrorResource(1, HOBBIT, "Failed to store the book"));
+    verify(libraryService, times(3)).importBooks(any());
+  }
+
+  @Test
+  void shouldImportCsvWithHeaderAndQuotedFields() throws IOException {
+    // given
+    String input = """
+        isbn,title,author,publicationYear,availableCopies
+        978-0-596-52068-1,"The Hobbit, or There and Back Again","J. R. R. Tolkien",1937,5
+        978-0-596-52068-2,The Silmarillion,J. R. R. Tolkien,1977
+        978-0-596-52068-1,The Hobbit,J. R. R. Tolkien,1937,5
+        """;
+    doReturn(Set.of()).when(libraryService).importBooks(any());
+
+    // when
+    BookImportReportResource report = underTest.importBooks(stream(input), BookImporter.TEXT_CSV);
+
+    // then
+    assertThat(report.imported()).isEqualTo(1);
+    assertThat(report.errors()).containsExactly(
+        new BookImportErrorResource(3, null, "Expected 5 fields but found 4"),
+        new BookImportErrorResource(4, HOBBIT, "Duplicate ISBN in import"));
+    verify(libraryService).importBooks(List.of(Book.builder()
+        .isbn(HOBBIT)
+        .title("The Hobbit, or There and Back Again")
+        .author("J. R. R. Tolkien")
+        .publicationYear(1937)
+        .availableCopies(5)
+        .build()));
+  }
+
+  private static ByteArrayInputStream stream(String input) {
+    return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -1,14 +1,23 @@
 package com.github.muhammadabdurrahman.librarymanagementsystem.presentation.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BatchItemResult;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.Book;
+import com.github.muhammadabdurrahman.librarymanagementsystem.business.model.BookPage;
 import com.github.muhammadabdurrahman.librarymanagementsystem.business.service.LibraryService;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.exception.InvalidPageTokenException;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchItemResultResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BatchRequestResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookLookupResource;
+import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookPageResource;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.BookResource;
 import com.github.muhammadabdurrahman.librarymanagementsystem.presentation.model.mapper.BookResourceMapper;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -71,14 +80,38 @@ class BookControllerTest {
     var bookResource1 = new BookResource("isbn1", "title1", author, 2017, 5);
     var bookResource2 = new BookResource("isbn2", "title2", author, 2017, 3);
     List<BookResource> expected = List.of(bookResource1, bookResource2);
-    doReturn(books).when(libraryService).findBooksByAuthor(author);
+    doReturn(new BookPage(books, "isbn2")).when(libraryService).findBooksByAuthor(author, null, 2);
     doReturn(expected).when(mapper).map(books);
 
     // when
-    List<BookResource> actual = underTest.findBooksByAuthor(author);
+    BookPageResource actual = underTest.findBooksByAuthor(author, 2, null);
 
     // then
-    assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    assertThat(actual.books()).usingRecursiveComparison().isEqualTo(expected);
+    assertThat(PageToken.decode(actual.nextPageToken())).isEqualTo("isbn2");
+  }
+
+  @Test
+  void shouldFindBooksAfterIsbnOfPageToken() {
+    // given
+    List<Book> books = List.of(Book.builder().isbn("isbn3").build());
+    List<BookResource> expected = List.of(BookResource.builder().isbn("isbn3").build());
+    doReturn(new BookPage(books, null)).when(libraryService).findBooks("isbn2", 50);
+    doReturn(expected).when(mapper).map(books);
+
+    // when
+    BookPageResource actual = underTest.findBooks(50, PageToken.encode("isbn2"));
+
+    // then
+    assertThat(actual).isEqualTo(new BookPageResource(expected, null));
+  }
+
+  @Test
+  void shouldRejectPageTokenNotIssuedByPreviousPage() {
+    assertThatThrownBy(() -> underTest.findBooks(50, "not-a-token"))
+        .isInstanceOf(InvalidPageTokenException.class);
+    assertThatThrownBy(() -> underTest.findBooks(50, "aXNibjo"))
+        .isInstanceOf(InvalidPageTokenException.class);
   }
 
   @Test
@@ -136,4 +169,48 @@ class BookControllerTest {
     // then
     verify(libraryService).removeBook(isbn);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldBorrowBooks() {
+    // given
+    var isbns = List.of("isbn1", "isbn2");
+    var results = List.of(
+        new BatchItemResult("isbn1", BatchItemResult.Outcome.SUCCEEDED),
+        new BatchItemResult("isbn2", BatchItemResult.Outcome.INSUFFICIENT_COPIES));
+    var expected = List.of(
+        new BatchItemResultResource("isbn1", BatchItemResultResource.Outcome.SUCCEEDED),
+        new BatchItemResultResource("isbn2", BatchItemResultResource.Outcome.INSUFFICIENT_COPIES));
+    doReturn(results).when(libraryService).borrowBooks(isbns);
+    doReturn(expected).when(mapper).mapResults(results);
+
+    // when
+    List<BatchItemResultResource> actual = underTest.borrowBooks(new BatchRequestResource(isbns));
+
+    // then
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldFindBooksByIsbnsInRequestOrderMarkingUnknownOnes() {
+    // given
+    var book = Book.builder()
+        .isbn("isbn1")
+        .title("title")
+        .author("author")
+        .publicationYear(2017)
+        .availableCopies(5)
+        .build();
+    var bookResource = new BookResource("isbn1", "title", "author", 2017, 5);
+    var isbns = List.of("unknown", "isbn1");
+    doReturn(Map.of("isbn1", book)).when(libraryService).findBooksByIsbns(isbns);
+    doReturn(bookResource).when(mapper).map(book);
+
+    // when
+    List<BookLookupResource> actual = underTest.findBooksByIsbns(isbns);
+
+    // then
+    assertThat(actual).containsExactly(
+        new BookLookupResource("unknown", false, null),
+        new BookLookupResource("isbn1", true, bookResource));
+  }
+}
@@ -0,0 +1,34 @@
+package com.github.muhammadabdurrahman.librarymanagementsystem.schedule;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
+
+import com.github.muhammadabdurrahman.librarymanagementsystem.persistence.cache.BookCacheSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CacheSnapshotScheduledTaskTest {
+
+  @Mock
+  private BookCacheSnapshot bookCacheSnapshot;
+
+  @InjectMocks
+  private CacheSnapshotScheduledTask underTest;
+
+  @Test
+  void shouldSaveSnapshot() {
+    // given
+    doNothing().when(bookCacheSnapshot).save();
+
+    // when
+    underTest.scheduledSnapshot();
+
+    // then
+    verify(bookCacheSnapshot).save();
+  }
+
+}